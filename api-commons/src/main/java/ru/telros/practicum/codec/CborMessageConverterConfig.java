@@ -0,0 +1,24 @@
+package ru.telros.practicum.codec;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Двоичный формат CBOR ({@code application/cbor}) для внутренних вызовов между сервисами.
+ * <p>
+ * Формат выбирается по заголовкам {@code Accept} и {@code Content-Type}, без них используется JSON.
+ * Конвертер строится из настроенного Spring Boot {@link Jackson2ObjectMapperBuilder}, поэтому DTO без
+ * конструктора по умолчанию, как {@link ru.telros.practicum.dto.auth_service.AccountDto},
+ * читаются так же, как из JSON.
+ */
+@Configuration
+public class CborMessageConverterConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,38 @@
+package ru.telros.practicum.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * В режиме виртуальных потоков ({@code spring.threads.virtual.enabled=true}) оборачивает пул соединений
+ * в {@link ConnectionLimitingDataSource} с числом разрешений, равным {@code spring.datasource.hikari.maximum-pool-size}.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadDataSourceGuard implements BeanPostProcessor, EnvironmentAware {
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+            return bean;
+        }
+        int maxConnections = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        long timeoutMs = environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L);
+        log.info("Доступ к DataSource {} ограничен семафором на {} соединений", beanName, maxConnections);
+        return new ConnectionLimitingDataSource(dataSource, maxConnections, Duration.ofMillis(timeoutMs));
+    }
+}
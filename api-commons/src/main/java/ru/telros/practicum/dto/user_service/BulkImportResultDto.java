@@ -0,0 +1,35 @@
+package ru.telros.practicum.dto.user_service;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Getter
+@Builder
+@ToString
+public class BulkImportResultDto {
+    long imported;
+    long failed;
+    /**
+     * Ошибки по строкам; хранится не больше настроенного числа первых ошибок.
+     */
+    List<RowError> errors;
+    boolean errorsTruncated;
+
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    @Getter
+    @Builder
+    @ToString
+    public static class RowError {
+        /**
+         * Номер строки во входном потоке, начиная с 1; строка заголовка CSV тоже учитывается.
+         */
+        long line;
+        String message;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.telros.practicum.dto.user_service;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Getter
+@Builder
+@ToString
+public class PhotoInfoDto {
+    /**
+     * Размер уменьшенного варианта в пикселях или {@code null} для оригинала.
+     */
+    Integer variant;
+    long size;
+    String contentType;
+    String sha256;
+    Instant uploadedAt;
+}
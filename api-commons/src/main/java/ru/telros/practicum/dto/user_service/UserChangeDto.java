@@ -0,0 +1,31 @@
+package ru.telros.practicum.dto.user_service;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Getter
+@Builder
+public class UserChangeDto {
+    /**
+     * Номер изменения; используется как курсор {@code since}.
+     */
+    Long id;
+    UUID userId;
+    UUID accountId;
+    /**
+     * CREATED, UPDATED или DELETED.
+     */
+    String type;
+    /**
+     * Новые значения полей: все поля для CREATED, заданные запросом поля для UPDATED, пусто для DELETED.
+     */
+    Map<String, String> changes;
+    Instant changedAt;
+}
@@ -0,0 +1,23 @@
+package ru.telros.practicum.dto.user_service;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Getter
+@Builder
+public class UserChangePageDto {
+    List<UserChangeDto> changes;
+    /**
+     * Значение параметра {@code since} для следующего запроса; если изменений нет, равно переданному.
+     */
+    long nextCursor;
+    /**
+     * {@code true}, если страница заполнена целиком и следующую можно запросить сразу.
+     */
+    boolean hasMore;
+}
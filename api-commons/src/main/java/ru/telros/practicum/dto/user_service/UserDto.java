@@ -16,6 +16,10 @@ import java.util.UUID;
 @Builder
 public class UserDto {
     UUID id;
+    /**
+     * Аккаунт-владелец профиля; задаётся сервером по токену и при создании профиля игнорируется.
+     */
+    UUID accountId;
     @NotBlank
     @Size(min = 2, max = 254)
     String lastName;
@@ -29,5 +33,8 @@ public class UserDto {
     String email;
     @Size(min = 6, max = 100)
     String phone;
-
+    /**
+     * Версия профиля, совпадает с ETag ответа; задаётся сервером и при создании профиля игнорируется.
+     */
+    Long version;
 }
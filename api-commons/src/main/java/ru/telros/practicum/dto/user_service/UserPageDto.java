@@ -0,0 +1,20 @@
+package ru.telros.practicum.dto.user_service;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+import java.util.UUID;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Getter
+@Builder
+public class UserPageDto {
+    List<UserDto> users;
+    /**
+     * Значение параметра {@code after} для следующей страницы или {@code null}, если страница последняя.
+     */
+    UUID nextCursor;
+}
@@ -0,0 +1,20 @@
+package ru.telros.practicum.dto.user_service;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.UUID;
+
+/**
+ * Подсказка при вводе: только то, что нужно показать в списке и открыть профиль.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Getter
+@Builder
+public class UserSuggestionDto {
+    UUID id;
+    String lastName;
+    String firstName;
+}
@@ -5,14 +5,28 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import ru.telros.practicum.dto.auth_service.AccountDto;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
-@FeignClient(name = "auth-service",path = "/internal/auth/account", fallback = AuthServiceFallback.class)
+@FeignClient(name = "auth-service",path = "/internal/auth/account", fallbackFactory = AuthServiceFallbackFactory.class)
 public interface AuthServiceClient {
+    /**
+     * Заголовок с ключом идемпотентности удаления: повтор запроса с ключом после успешного удаления
+     * не считается ошибкой.
+     */
+    String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     @GetMapping("/{accountId}")
     ResponseEntity<AccountDto> getAccount(@PathVariable("accountId") UUID accountId);
+    @PostMapping("/batch")
+    ResponseEntity<List<AccountDto>> getAccounts(@RequestBody Collection<UUID> accountIds);
     @DeleteMapping("/{accountId}")
-    ResponseEntity<Void> deleteAccount(@PathVariable("accountId") UUID accountId);
+    ResponseEntity<Void> deleteAccount(@PathVariable("accountId") UUID accountId,
+                                       @RequestHeader(IDEMPOTENCY_KEY_HEADER) UUID idempotencyKey);
 }
@@ -1,23 +1,50 @@
 package ru.telros.practicum.feign;
 
+import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.stereotype.Component;
 import ru.telros.practicum.dto.auth_service.AccountDto;
 import ru.telros.practicum.exception.ServiceUnavailableException;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
-@Component
+
+/**
+ * Резервный вариант {@link AuthServiceClient} для одного отказа, см. {@link AuthServiceFallbackFactory}.
+ * <p>
+ * Ответы 4xx — это ответ auth-service, а не его недоступность, поэтому они пробрасываются как есть.
+ * Остальные ошибки, в том числе открытый предохранитель и переполненный bulkhead,
+ * заменяются на {@link ServiceUnavailableException} с исходной причиной.
+ */
 @Slf4j
 public class AuthServiceFallback implements AuthServiceClient {
+    private final Throwable cause;
+
+    public AuthServiceFallback(Throwable cause) {
+        this.cause = cause;
+    }
+
     @Override
     public ResponseEntity<AccountDto> getAccount(UUID accountId){
         log.warn("Активирован резервный вариант для getAccount с id: {}", accountId);
-        throw new ServiceUnavailableException("Auth-service недоступен");
+        throw unavailable();
     }
     @Override
-    public ResponseEntity<Void> deleteAccount(UUID accountId){
+    public ResponseEntity<List<AccountDto>> getAccounts(Collection<UUID> accountIds){
+        log.warn("Активирован резервный вариант для getAccounts для {} id", accountIds.size());
+        throw unavailable();
+    }
+    @Override
+    public ResponseEntity<Void> deleteAccount(UUID accountId, UUID idempotencyKey){
         log.warn("Активирован резервный вариант для deleteAccount с id: {}", accountId);
-        throw new ServiceUnavailableException("Auth-service недоступен");
+        throw unavailable();
+    }
+
+    private RuntimeException unavailable() {
+        if (cause instanceof FeignException.FeignClientException clientError) {
+            return clientError;
+        }
+        return new ServiceUnavailableException("Auth-service недоступен", cause);
     }
 }
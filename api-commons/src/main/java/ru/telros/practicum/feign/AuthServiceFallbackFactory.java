@@ -0,0 +1,12 @@
+package ru.telros.practicum.feign;
+
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuthServiceFallbackFactory implements FallbackFactory<AuthServiceClient> {
+    @Override
+    public AuthServiceClient create(Throwable cause) {
+        return new AuthServiceFallback(cause);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.telros.practicum.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Первичный ключ UUID, упорядоченный по времени создания ({@link UuidV7}).
+ * Заменяет {@code @GeneratedValue(strategy = GenerationType.UUID)}, который генерирует случайные UUID версии 4.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedUuidV7 {
+}
@@ -0,0 +1,59 @@
+package ru.telros.practicum.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.telros.practicum.repository.AccountRepository;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Component
+@Slf4j
+public class ActiveAccountCache {
+    private final AccountRepository accountRepository;
+    private final boolean enabled;
+    private final LoadingCache<UUID, Boolean> cache;
+
+    public ActiveAccountCache(AccountRepository accountRepository,
+                              @Value("${jwt.revocation-check.enabled:false}") boolean enabled,
+                              @Value("${jwt.revocation-check.max-size:10000}") long maxSize,
+                              @Value("${jwt.revocation-check.ttl:PT30S}") Duration ttl) {
+        this.accountRepository = accountRepository;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build(this::loadFromDatabase);
+    }
+
+    /**
+     * Проверяет, что аккаунт из JWT токена не был удалён после выпуска токена.
+     *
+     * Если проверка отключена ({@code jwt.revocation-check.enabled=false}), всегда возвращает {@code true}
+     * и не обращается к базе данных. Иначе результат берётся из локального кэша
+     * и обновляется не чаще одного раза в {@code jwt.revocation-check.ttl}.
+     *
+     * @param accountId идентификатор аккаунта
+     * @return {@code true}, если аккаунт существует или проверка отключена
+     */
+    public boolean isActive(UUID accountId) {
+        return !enabled || cache.get(accountId);
+    }
+
+    /**
+     * Удаляет запись об аккаунте из кэша, например после удаления аккаунта.
+     *
+     * @param accountId идентификатор аккаунта
+     */
+    public void invalidate(UUID accountId) {
+        cache.invalidate(accountId);
+    }
+
+    private Boolean loadFromDatabase(UUID accountId) {
+        log.debug("Промах кэша активных аккаунтов, запрос в БД для id {}", accountId);
+        return accountRepository.existsById(accountId);
+    }
+}
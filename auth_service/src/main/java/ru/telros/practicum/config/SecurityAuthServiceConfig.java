@@ -10,11 +10,11 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import ru.telros.practicum.security.AuthServiceJwtAuthFilter;
+import ru.telros.practicum.security.CustomUserDetailsService;
 
 @Configuration
 @EnableWebSecurity
@@ -22,7 +22,7 @@ import ru.telros.practicum.security.AuthServiceJwtAuthFilter;
 public class SecurityAuthServiceConfig {
 
     private final AuthServiceJwtAuthFilter jwtAuthFilter;
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
     private final PasswordEncoder passwordEncoder;
 
     @Bean(name = "authServiceSecurityFilterChain")
@@ -32,6 +32,7 @@ public class SecurityAuthServiceConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/internal/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll() // metrics — только с аутентификацией
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -46,6 +47,8 @@ public class SecurityAuthServiceConfig {
         var authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder);
+        // Перехэширует пароль при логине, если стоимость bcrypt в базе ниже настроенной
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return new ProviderManager(authProvider);
     }
 
@@ -8,11 +8,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ru.telros.practicum.dto.auth_service.AccountDto;
+import ru.telros.practicum.feign.AuthServiceClient;
 import ru.telros.practicum.service.AccountService;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -30,9 +36,18 @@ public class AccountController {
                 .body(accountService.getAccountById(accountId));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<AccountDto>> getAccounts(@RequestBody Set<UUID> accountIds) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(accountService.getAccountsByIds(accountIds));
+    }
+
     @DeleteMapping("/{accountId}")
-    public ResponseEntity<Void> deleteAccount(@PathVariable("accountId") UUID accountId) {
-        accountService.deleteAccountById(accountId);
+    public ResponseEntity<Void> deleteAccount(@PathVariable("accountId") UUID accountId,
+                                              @RequestHeader(value = AuthServiceClient.IDEMPOTENCY_KEY_HEADER,
+                                                      required = false) UUID idempotencyKey) {
+        accountService.deleteAccountById(accountId, idempotencyKey);
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .build();
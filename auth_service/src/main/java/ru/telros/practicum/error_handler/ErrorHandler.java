@@ -8,6 +8,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.telros.practicum.exception.InvalidCredentialsException;
 import ru.telros.practicum.exception.AccountAlreadyExistsException;
 import ru.telros.practicum.exception.AccountNotFoundException;
+import ru.telros.practicum.exception.BatchTooLargeException;
+import ru.telros.practicum.exception.ServiceUnavailableException;
 
 @RestControllerAdvice
 @Slf4j
@@ -15,7 +17,8 @@ public class ErrorHandler extends BaseErrorHandler {
     // 400 Bad Request - Ошибки валидации
     @ExceptionHandler({
             InvalidCredentialsException.class,
-            AccountAlreadyExistsException.class
+            AccountAlreadyExistsException.class,
+            BatchTooLargeException.class
     })
     public ResponseEntity<ErrorResponse> handleBadRequestExceptions(RuntimeException ex) {
         return handleException(ex, HttpStatus.BAD_REQUEST);
@@ -27,6 +30,12 @@ public class ErrorHandler extends BaseErrorHandler {
         return handleException(ex, HttpStatus.NOT_FOUND);
     }
 
+    // 503 Service Unavailable - Пул хэширования паролей перегружен
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(RuntimeException ex) {
+        return handleException(ex, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
 
 
     @Override
@@ -36,6 +45,8 @@ public class ErrorHandler extends BaseErrorHandler {
             case "InvalidCredentialsException" -> "Invalid login or password";
             case "AccountAlreadyExistsException" -> "Account already exists";
             case "AccountNotFoundException" -> "Account not found";
+            case "BatchTooLargeException" -> "Too many ids in one request";
+            case "ServiceUnavailableException" -> "Service is temporarily overloaded, try again later";
             default -> "An unexpected error occurred";
         };
     }
@@ -0,0 +1,7 @@
+package ru.telros.practicum.exception;
+
+public class BatchTooLargeException extends RuntimeException {
+    public BatchTooLargeException(int size, int maxSize) {
+        super("Batch of " + size + " ids exceeds the limit of " + maxSize);
+    }
+}
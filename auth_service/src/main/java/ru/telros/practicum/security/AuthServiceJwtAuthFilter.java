@@ -12,15 +12,18 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import ru.telros.practicum.cache.ActiveAccountCache;
+import ru.telros.practicum.entity.Account;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class AuthServiceJwtAuthFilter extends OncePerRequestFilter {
     private final AuthServiceJwtProvider jwtProvider;
-    private final CustomUserDetailsService userDetailsService;
+    private final ActiveAccountCache activeAccountCache;
 
     @Override
     protected void doFilterInternal(
@@ -36,22 +39,26 @@ public class AuthServiceJwtAuthFilter extends OncePerRequestFilter {
         }
 
         String jwt = authHeader.substring(7);
-        log.debug("JWT Token получен: {}", jwt);
-        if (jwtProvider.validateToken(jwt)) {
-            String username = jwtProvider.getUsernameFromToken(jwt);
-            log.debug("JWT token валидный, имя пользователя: {}", username);
-            var userDetails = userDetailsService.loadUserByUsername(username);
+        Optional<ValidatedToken> validated = jwtProvider.validate(jwt);
+        if (validated.isEmpty()) {
+            log.debug("Некорректный JWT Token");
+        } else if (!activeAccountCache.isActive(validated.get().accountId())) {
+            log.debug("Аккаунт {} из JWT token удалён", validated.get().accountId());
+        } else {
+            log.debug("JWT token валидный, имя пользователя: {}", validated.get().subject());
+            // Principal собирается из claims токена без обращения к БД
+            Account principal = Account.builder()
+                    .id(validated.get().accountId())
+                    .login(validated.get().subject())
+                    .build();
 
             var authToken = new UsernamePasswordAuthenticationToken(
-                    userDetails,
+                    principal,
                     null,
-                    userDetails.getAuthorities()
+                    principal.getAuthorities()
             );
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authToken);
-
-        } else {
-            log.debug("Некорректный JWT Token");
         }
         filterChain.doFilter(request, response);
     }
@@ -1,6 +1,7 @@
 package ru.telros.practicum.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -13,16 +14,24 @@ import ru.telros.practicum.entity.Account;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
 import java.util.UUID;
 
 @Component
 @Slf4j
 public class AuthServiceJwtProvider {
-    @Value("${jwt.secret}")
-    private String secret;
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final long expiration;
 
-    @Value("${jwt.expiration}")
-    private long expiration;
+    public AuthServiceJwtProvider(@Value("${jwt.secret}") String secret,
+                                  @Value("${jwt.expiration}") long expiration) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.expiration = expiration;
+    }
 
     public String generateToken(Authentication authentication) {
         Account account = (Account) authentication.getPrincipal();
@@ -37,44 +46,32 @@ public class AuthServiceJwtProvider {
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .claim("accountId", accountId.toString())
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
-    }
-
-    public boolean validateToken(String token) {
+    /**
+     * Проверяет подпись и срок действия токена за один разбор.
+     *
+     * @param token JWT токен без префикса {@code Bearer}
+     * @return данные токена или пустой {@link Optional}, если токен невалиден
+     */
+    public Optional<ValidatedToken> validate(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            return Optional.of(new ValidatedToken(
+                    UUID.fromString(claims.get("accountId", String.class)),
+                    claims.getSubject(),
+                    claims.getExpiration().toInstant()));
         } catch (io.jsonwebtoken.ExpiredJwtException e) {
-
-            log.error("Срок действия токена JWT истек: {}", token, e);
+            log.error("Срок действия токена JWT истек: {}", e.getMessage());
         } catch (io.jsonwebtoken.MalformedJwtException e) {
-
-            log.error("Токен JWT имеет неправильный формат: {}", token, e);
-        } catch (io.jsonwebtoken.SignatureException e) {
-
-            log.error("Подпись JWT недействительна: {}", token, e);
+            log.error("Токен JWT имеет неправильный формат: {}", e.getMessage());
+        } catch (io.jsonwebtoken.security.SignatureException e) {
+            log.error("Подпись JWT недействительна: {}", e.getMessage());
         } catch (Exception e) {
-            log.error("Недействительный токен JWT: {}", token, e);
+            log.error("Недействительный токен JWT: {}", e.getMessage());
         }
-        return false;
-    }
-
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return Optional.empty();
     }
 }
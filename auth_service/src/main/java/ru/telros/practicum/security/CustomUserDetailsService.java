@@ -1,15 +1,19 @@
 package ru.telros.practicum.security;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import ru.telros.practicum.entity.Account;
 import ru.telros.practicum.repository.AccountRepository;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+@Slf4j
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final AccountRepository accountRepository;
 
     @Override
@@ -17,4 +21,21 @@ public class CustomUserDetailsService implements UserDetailsService {
         return accountRepository.findByLogin(login)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with login: " + login));
     }
+
+    /**
+     * Сохраняет пароль, перехэшированный при успешном логине.
+     * <p>
+     * Вызывается {@code DaoAuthenticationProvider}, если хэш в базе посчитан с устаревшей стоимостью bcrypt.
+     *
+     * @param user        аутентифицированный аккаунт
+     * @param newPassword новый хэш пароля
+     * @return аккаунт с обновлённым хэшем
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        log.info("Перехэширование пароля аккаунта {} с актуальной стоимостью bcrypt", user.getUsername());
+        Account account = (Account) user;
+        account.setPassword(newPassword);
+        return accountRepository.save(account);
+    }
 }
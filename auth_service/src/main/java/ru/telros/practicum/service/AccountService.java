@@ -2,11 +2,14 @@ package ru.telros.practicum.service;
 
 import ru.telros.practicum.dto.auth_service.AccountDto;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 
 public interface AccountService {
 
     AccountDto getAccountById(UUID accountId);
-    void deleteAccountById(UUID accountId);
+    List<AccountDto> getAccountsByIds(Collection<UUID> accountIds);
+    void deleteAccountById(UUID accountId, UUID idempotencyKey);
 }
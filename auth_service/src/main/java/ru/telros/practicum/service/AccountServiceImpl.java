@@ -1,25 +1,40 @@
 package ru.telros.practicum.service;
 
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import ru.telros.practicum.cache.ActiveAccountCache;
 import ru.telros.practicum.dto.auth_service.AccountDto;
 import ru.telros.practicum.entity.Account;
 import ru.telros.practicum.exception.AccountNotFoundException;
+import ru.telros.practicum.exception.BatchTooLargeException;
 import ru.telros.practicum.mapper.AccountMapper;
 import ru.telros.practicum.repository.AccountRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class AccountServiceImpl implements AccountService {
     AccountRepository accountRepository;
     AccountMapper mapper;
+    ActiveAccountCache activeAccountCache;
+    int maxBatchSize;
+
+    public AccountServiceImpl(AccountRepository accountRepository,
+                              AccountMapper mapper,
+                              ActiveAccountCache activeAccountCache,
+                              @Value("${account-batch.max-size:500}") int maxBatchSize) {
+        this.accountRepository = accountRepository;
+        this.mapper = mapper;
+        this.activeAccountCache = activeAccountCache;
+        this.maxBatchSize = maxBatchSize;
+    }
 
     /**
      * Возвращает пользователя по его идентификатору.
@@ -35,10 +50,45 @@ public class AccountServiceImpl implements AccountService {
         return mapper.toDto(findAccountById(accountId));
     }
 
-    public void deleteAccountById(UUID accountId) {
-        log.info("Удаление аккаунта по id {}", accountId);
-        findAccountById(accountId);
+    /**
+     * Возвращает аккаунты по списку идентификаторов одним запросом к БД.
+     * <p>
+     * Несуществующие идентификаторы пропускаются, поэтому результат может быть короче входного списка.
+     *
+     * @param accountIds идентификаторы аккаунтов, не больше {@code account-batch.max-size}
+     * @return найденные аккаунты
+     * @throws BatchTooLargeException если идентификаторов больше {@code account-batch.max-size}
+     */
+    public List<AccountDto> getAccountsByIds(Collection<UUID> accountIds) {
+        if (accountIds.size() > maxBatchSize) {
+            throw new BatchTooLargeException(accountIds.size(), maxBatchSize);
+        }
+        log.debug("Пакетный поиск {} аккаунтов", accountIds.size());
+        return accountRepository.findAllById(accountIds).stream()
+                .map(mapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Удаляет аккаунт по идентификатору.
+     * <p>
+     * Запрос с ключом идемпотентности повторяется отправителем до получения успешного ответа,
+     * поэтому для него отсутствие аккаунта означает, что он уже удалён предыдущей попыткой, и ошибкой не считается.
+     *
+     * @param accountId      уникальный идентификатор пользователя
+     * @param idempotencyKey ключ идемпотентности запроса или {@code null}
+     * @throws AccountNotFoundException если аккаунт не существует, а ключ идемпотентности не передан
+     */
+    public void deleteAccountById(UUID accountId, UUID idempotencyKey) {
+        log.info("Удаление аккаунта по id {}, ключ идемпотентности {}", accountId, idempotencyKey);
+        if (idempotencyKey == null) {
+            findAccountById(accountId);
+        } else if (!accountRepository.existsById(accountId)) {
+            log.info("Аккаунт {} уже удалён", accountId);
+            return;
+        }
         accountRepository.deleteById(accountId);
+        activeAccountCache.invalidate(accountId);
     }
 
     private Account findAccountById(UUID accountId) {
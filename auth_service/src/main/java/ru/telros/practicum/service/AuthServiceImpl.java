@@ -1,6 +1,5 @@
 package ru.telros.practicum.service;
 
-import jakarta.transaction.Transactional;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -19,6 +18,7 @@ import ru.telros.practicum.dto.auth_service.RegisterRequest;
 import ru.telros.practicum.entity.Account;
 import ru.telros.practicum.exception.InvalidCredentialsException;
 import ru.telros.practicum.exception.AccountAlreadyExistsException;
+import ru.telros.practicum.exception.ServiceUnavailableException;
 import ru.telros.practicum.mapper.AccountMapper;
 import ru.telros.practicum.repository.AccountRepository;
 import ru.telros.practicum.security.AuthServiceJwtProvider;
@@ -63,6 +63,9 @@ public class AuthServiceImpl implements AuthService {
         } catch (AuthenticationException e) {
             log.error("Ошибка аутентификации пользователя: {}", request.getLogin(), e);
             throw new InvalidCredentialsException();
+        } catch (ServiceUnavailableException e) {
+            log.warn("Аутентификация пользователя {} отклонена: {}", request.getLogin(), e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Неожиданная ошибка во время аутентификации", e);
             throw new InvalidCredentialsException();
@@ -72,13 +75,14 @@ public class AuthServiceImpl implements AuthService {
      * Регистрирует нового пользователя.
      * <p>
      * Проверяет уникальность логина, хеширует пароль и сохраняет пользователя в базу данных.
+     * Хэширование выполняется вне транзакции, чтобы не удерживать соединение с БД на время работы bcrypt.
      * В случае, если пользователь с таким логином уже существует, выбрасывается исключение {@link AccountAlreadyExistsException}.
      *
      * @param request {@link RegisterRequest} данные для регистрации пользователя
      * @return сохранённый пользователь
      * @throws AccountAlreadyExistsException если пользователь с таким логином уже существует
+     * @throws ServiceUnavailableException     если пул хэширования паролей перегружен
      */
-    @Transactional
     public AccountDto register(RegisterRequest request) {
         if (accountRepository.existsByLogin(request.getLogin())) {
             throw new AccountAlreadyExistsException(request.getLogin());
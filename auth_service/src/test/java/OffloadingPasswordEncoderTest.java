@@ -0,0 +1,74 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.telros.practicum.exception.ServiceUnavailableException;
+import ru.telros.practicum.security.OffloadingPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+public class OffloadingPasswordEncoderTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private OffloadingPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    void encodeAndMatches_shouldDelegateAndRecordLatency() {
+        encoder = new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        String hash = encoder.encode("secret");
+
+        Assertions.assertTrue(encoder.matches("secret", hash));
+        Assertions.assertFalse(encoder.matches("wrong", hash));
+        Assertions.assertFalse(encoder.upgradeEncoding(hash));
+        Assertions.assertEquals(2, meterRegistry.get("password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void encode_shouldFailFast_whenQueueIsFull() throws Exception {
+        encoder = new OffloadingPasswordEncoder(new BlockingEncoder(), 1, 1, Duration.ofSeconds(5), meterRegistry);
+        CompletableFuture.runAsync(() -> encoder.encode("running"));
+        CompletableFuture.runAsync(() -> encoder.encode("queued"));
+        while (meterRegistry.get("executor.queued").tag("name", "passwordHashing").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertThrows(ServiceUnavailableException.class, () -> encoder.encode("rejected"));
+        Assertions.assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+    }
+
+    @Test
+    void encode_shouldFail_whenHashingTimesOut() {
+        encoder = new OffloadingPasswordEncoder(new BlockingEncoder(), 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        Assertions.assertThrows(ServiceUnavailableException.class, () -> encoder.encode("slow"));
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
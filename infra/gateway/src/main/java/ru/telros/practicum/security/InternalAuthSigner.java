@@ -0,0 +1,46 @@
+package ru.telros.practicum.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Подписывает внутренний заголовок {@value #HEADER} с accountId, проверенным на gateway.
+ * <p>
+ * Формат значения: {@code <accountId>.<exp в секундах>.<HMAC-SHA256 в base64url>}.
+ * Подпись считается по строке {@code <accountId>.<exp>} общим секретом {@code internal-auth.secret}.
+ */
+@Component
+public class InternalAuthSigner {
+    public static final String HEADER = "X-Internal-Auth";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final Mac prototype;
+
+    public InternalAuthSigner(@Value("${internal-auth.secret}") String secret) throws GeneralSecurityException {
+        this.prototype = Mac.getInstance(ALGORITHM);
+        this.prototype.init(new SecretKeySpec(Base64.getDecoder().decode(secret), ALGORITHM));
+    }
+
+    public String sign(UUID accountId, Instant expiresAt) {
+        String payload = accountId + "." + expiresAt.getEpochSecond();
+        return payload + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(newMac().doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    // Mac не потокобезопасен, поэтому на каждый вызов используется копия заранее инициализированного экземпляра
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
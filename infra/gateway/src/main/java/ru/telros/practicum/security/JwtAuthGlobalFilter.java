@@ -0,0 +1,71 @@
+package ru.telros.practicum.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Проверяет JWT токен один раз на входе в систему.
+ * <p>
+ * Запросы с невалидным токеном отклоняются с 401 до выбора экземпляра сервиса.
+ * Для валидного токена downstream сервисам передаётся подписанный заголовок {@link InternalAuthSigner#HEADER}
+ * с accountId, что избавляет их от повторного разбора JWS. Пришедший от клиента заголовок всегда удаляется.
+ */
+@Component
+@Slf4j
+public class JwtAuthGlobalFilter implements GlobalFilter, Ordered {
+    private static final String BEARER = "Bearer ";
+
+    private final JwtParser parser;
+    private final InternalAuthSigner signer;
+
+    public JwtAuthGlobalFilter(@Value("${jwt.secret}") String secret, InternalAuthSigner signer) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .build();
+        this.signer = signer;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        ServerHttpRequest.Builder request = exchange.getRequest().mutate()
+                .headers(headers -> headers.remove(InternalAuthSigner.HEADER));
+
+        if (header != null && header.startsWith(BEARER)) {
+            try {
+                Claims claims = parser.parseClaimsJws(header.substring(BEARER.length())).getBody();
+                UUID accountId = UUID.fromString(claims.get("accountId", String.class));
+                request.header(InternalAuthSigner.HEADER,
+                        signer.sign(accountId, claims.getExpiration().toInstant()));
+            } catch (JwtException | IllegalArgumentException | NullPointerException e) {
+                log.warn("Невалидный JWT токен отклонён на gateway: {}", e.getMessage());
+                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                return exchange.getResponse().setComplete();
+            }
+        }
+        return chain.filter(exchange.mutate().request(request.build()).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // До балансировки нагрузки и маршрутизации
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
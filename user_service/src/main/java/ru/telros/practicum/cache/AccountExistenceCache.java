@@ -0,0 +1,73 @@
+package ru.telros.practicum.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.telros.practicum.feign.CoalescingAccountClient;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Component
+@Profile("!reactive")
+@Slf4j
+public class AccountExistenceCache {
+    public static final String CACHE_NAME = "accountExistence";
+
+    private final CoalescingAccountClient accountClient;
+    private final LastKnownAccountCache lastKnownAccounts;
+    private final LoadingCache<UUID, Boolean> cache;
+
+    public AccountExistenceCache(CoalescingAccountClient accountClient,
+                                 LastKnownAccountCache lastKnownAccounts,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${account-cache.max-size:10000}") long maxSize,
+                                 @Value("${account-cache.ttl:PT5M}") Duration ttl,
+                                 @Value("${account-cache.negative-ttl:PT10S}") Duration negativeTtl) {
+        this.accountClient = accountClient;
+        this.lastKnownAccounts = lastKnownAccounts;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExistenceExpiry(ttl, negativeTtl))
+                .recordStats()
+                .build(this::loadFromAuthService);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Проверяет существование аккаунта.
+     *
+     * Результат берётся из локального кэша; при промахе выполняется запрос в auth-service,
+     * объединённый с конкурентными промахами в один пакетный вызов.
+     * Положительный ответ кэшируется на {@code account-cache.ttl},
+     * отрицательный (аккаунт не найден в auth-service) — на более короткий {@code account-cache.negative-ttl}.
+     * Прочие ошибки вызова не кэшируются и пробрасываются вызывающему.
+     *
+     * @param accountId идентификатор аккаунта
+     * @return {@code true}, если аккаунт существует
+     */
+    public boolean exists(UUID accountId) {
+        return cache.get(accountId);
+    }
+
+    /**
+     * Удаляет запись об аккаунте из кэша и из {@link LastKnownAccountCache}, например после удаления аккаунта.
+     *
+     * @param accountId идентификатор аккаунта
+     */
+    public void invalidate(UUID accountId) {
+        log.debug("Инвалидация записи кэша аккаунтов для id {}", accountId);
+        cache.invalidate(accountId);
+        lastKnownAccounts.invalidate(accountId);
+    }
+
+    private Boolean loadFromAuthService(UUID accountId) {
+        log.debug("Промах кэша аккаунтов, запрос в auth-service для id {}", accountId);
+        return accountClient.findAccount(accountId).isPresent();
+    }
+}
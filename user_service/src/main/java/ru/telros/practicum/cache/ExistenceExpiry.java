@@ -0,0 +1,27 @@
+package ru.telros.practicum.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Срок жизни записи кэша существования аккаунтов: положительный ответ живёт {@code ttl},
+ * отрицательный — более короткий {@code negativeTtl}.
+ */
+record ExistenceExpiry(Duration ttl, Duration negativeTtl) implements Expiry<UUID, Boolean> {
+    @Override
+    public long expireAfterCreate(UUID key, Boolean exists, long currentTime) {
+        return exists ? ttl.toNanos() : negativeTtl.toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(UUID key, Boolean exists, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, exists, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(UUID key, Boolean exists, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
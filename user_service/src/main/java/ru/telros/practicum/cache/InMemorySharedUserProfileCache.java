@@ -0,0 +1,42 @@
+package ru.telros.practicum.cache;
+
+import ru.telros.practicum.dto.user_service.UserDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Локальная замена общего уровня кэша для тестов и запуска одного экземпляра
+ * ({@code user-cache.shared.type: in-memory}). Несколько {@link UserProfileCache}, подписанных на один объект,
+ * ведут себя как экземпляры сервиса с общим распределённым кэшем. Размер и время жизни не ограничены.
+ */
+public class InMemorySharedUserProfileCache implements SharedUserProfileCache {
+    private final Map<UUID, UserDto> profiles = new ConcurrentHashMap<>();
+    private final List<Consumer<UUID>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Optional<UserDto> get(UUID userId) {
+        return Optional.ofNullable(profiles.get(userId));
+    }
+
+    @Override
+    public void put(UUID userId, UserDto user) {
+        profiles.put(userId, user);
+    }
+
+    @Override
+    public void evict(UUID userId) {
+        profiles.remove(userId);
+        listeners.forEach(listener -> listener.accept(userId));
+    }
+
+    @Override
+    public void onEvict(Consumer<UUID> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,56 @@
+package ru.telros.practicum.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.telros.practicum.dto.auth_service.AccountDto;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Последние успешно полученные из auth-service аккаунты.
+ * <p>
+ * Используется только как резерв, когда auth-service недоступен или его предохранитель открыт:
+ * лучше ответить по данным давностью до {@code account-cache.last-known-ttl}, чем отказать в запросе.
+ */
+@Component
+@Profile("!reactive")
+public class LastKnownAccountCache {
+    public static final String CACHE_NAME = "lastKnownAccounts";
+
+    private final Cache<UUID, AccountDto> cache;
+
+    public LastKnownAccountCache(MeterRegistry meterRegistry,
+                                 @Value("${account-cache.max-size:10000}") long maxSize,
+                                 @Value("${account-cache.last-known-ttl:PT1H}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public void put(AccountDto account) {
+        cache.put(account.getId(), account);
+    }
+
+    public Optional<AccountDto> find(UUID accountId) {
+        return Optional.ofNullable(cache.getIfPresent(accountId));
+    }
+
+    /**
+     * Забывает аккаунт, которого больше нет в auth-service.
+     *
+     * @param accountId идентификатор аккаунта
+     */
+    public void invalidate(UUID accountId) {
+        cache.invalidate(accountId);
+    }
+}
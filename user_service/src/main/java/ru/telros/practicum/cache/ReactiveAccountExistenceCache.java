@@ -0,0 +1,53 @@
+package ru.telros.practicum.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import ru.telros.practicum.client.ReactiveAuthServiceClient;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Реактивный вариант {@link AccountExistenceCache} с теми же настройками {@code account-cache.*}.
+ * Конкурентные промахи по одному аккаунту ожидают общий запрос в auth-service.
+ */
+@Component
+@Profile("reactive")
+@Slf4j
+public class ReactiveAccountExistenceCache {
+    private final ReactiveAuthServiceClient authServiceClient;
+    private final AsyncCache<UUID, Boolean> cache;
+
+    public ReactiveAccountExistenceCache(ReactiveAuthServiceClient authServiceClient,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${account-cache.max-size:10000}") long maxSize,
+                                         @Value("${account-cache.ttl:PT5M}") Duration ttl,
+                                         @Value("${account-cache.negative-ttl:PT10S}") Duration negativeTtl) {
+        this.authServiceClient = authServiceClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExistenceExpiry(ttl, negativeTtl))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, AccountExistenceCache.CACHE_NAME);
+    }
+
+    public Mono<Boolean> exists(UUID accountId) {
+        return Mono.fromFuture(() -> cache.get(accountId, (id, executor) -> {
+            log.debug("Промах кэша аккаунтов, запрос в auth-service для id {}", id);
+            return authServiceClient.accountExists(id).toFuture();
+        }));
+    }
+
+    public void invalidate(UUID accountId) {
+        log.debug("Инвалидация записи кэша аккаунтов для id {}", accountId);
+        cache.synchronous().invalidate(accountId);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.telros.practicum.cache;
+
+import ru.telros.practicum.dto.user_service.UserDto;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Второй, общий для всех экземпляров user-service уровень кэша профилей.
+ * <p>
+ * Реализация (например, поверх Redis) хранит профили между экземплярами и рассылает уведомления об инвалидации,
+ * по которым каждый экземпляр удаляет запись из своего локального уровня {@link UserProfileCache}.
+ * Ошибки общего уровня не должны ломать чтение профиля: реализация сама решает, считать ли их промахом.
+ */
+public interface SharedUserProfileCache {
+
+    Optional<UserDto> get(UUID userId);
+
+    void put(UUID userId, UserDto user);
+
+    /**
+     * Удаляет профиль и уведомляет все подписанные экземпляры, включая текущий.
+     */
+    void evict(UUID userId);
+
+    /**
+     * Подписывает экземпляр на уведомления об инвалидации профилей.
+     */
+    void onEvict(Consumer<UUID> listener);
+}
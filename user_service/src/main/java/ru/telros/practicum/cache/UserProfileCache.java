@@ -0,0 +1,121 @@
+package ru.telros.practicum.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.telros.practicum.dto.user_service.UserDto;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Кэш профилей пользователей для {@code getUserById} со сквозным чтением.
+ * <p>
+ * Первый уровень — локальный Caffeine с ограничением {@code user-cache.max-size} и временем жизни
+ * {@code user-cache.ttl}. Второй уровень — необязательный {@link SharedUserProfileCache}, общий для экземпляров
+ * сервиса; при его наличии инвалидация рассылается всем экземплярам. Фотографии в кэш не попадают.
+ * <p>
+ * Метрики: {@code cache.gets} с тегом {@code cache=userProfiles} для локального уровня и
+ * {@code user.cache.shared.gets} с тегом {@code result=hit|miss} для общего.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class UserProfileCache {
+    public static final String CACHE_NAME = "userProfiles";
+
+    private final Cache<UUID, UserDto> cache;
+    private final SharedUserProfileCache sharedCache;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+
+    public UserProfileCache(MeterRegistry meterRegistry,
+                            Optional<SharedUserProfileCache> sharedCache,
+                            @Value("${user-cache.max-size:10000}") long maxSize,
+                            @Value("${user-cache.ttl:PT5M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.sharedCache = sharedCache.orElse(null);
+        if (this.sharedCache != null) {
+            this.sharedCache.onEvict(cache::invalidate);
+        }
+        this.sharedHits = Counter.builder("user.cache.shared.gets")
+                .tag("cache", CACHE_NAME)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.sharedMisses = Counter.builder("user.cache.shared.gets")
+                .tag("cache", CACHE_NAME)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Возвращает профиль из локального уровня, затем из общего; при промахе обоих вызывает {@code loader}
+     * и сохраняет результат на обоих уровнях. Исключения {@code loader} не кэшируются и пробрасываются.
+     *
+     * @param userId идентификатор пользователя
+     * @param loader загрузка профиля из базы данных
+     * @return профиль пользователя
+     */
+    public UserDto get(UUID userId, Function<UUID, UserDto> loader) {
+        return cache.get(userId, id -> loadFromSharedOrSource(id, loader));
+    }
+
+    /**
+     * Удаляет профиль из кэша на всех уровнях.
+     * <p>
+     * Если вызов выполняется внутри транзакции, профиль удаляется ещё раз после её фиксации, чтобы
+     * конкурентное чтение не успело вернуть в кэш ещё не изменённую запись.
+     *
+     * @param userId идентификатор пользователя
+     */
+    public void invalidate(UUID userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    private void evict(UUID userId) {
+        log.debug("Инвалидация записи кэша профилей для id {}", userId);
+        cache.invalidate(userId);
+        if (sharedCache != null) {
+            sharedCache.evict(userId);
+        }
+    }
+
+    private UserDto loadFromSharedOrSource(UUID userId, Function<UUID, UserDto> loader) {
+        if (sharedCache == null) {
+            return loader.apply(userId);
+        }
+        Optional<UserDto> shared = sharedCache.get(userId);
+        if (shared.isPresent()) {
+            sharedHits.increment();
+            return shared.get();
+        }
+        sharedMisses.increment();
+        log.debug("Промах кэша профилей, загрузка пользователя с id {}", userId);
+        UserDto user = loader.apply(userId);
+        sharedCache.put(userId, user);
+        return user;
+    }
+}
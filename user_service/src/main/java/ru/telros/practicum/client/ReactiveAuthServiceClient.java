@@ -0,0 +1,61 @@
+package ru.telros.practicum.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.telros.practicum.feign.AuthServiceClient;
+
+import java.util.UUID;
+
+/**
+ * Неблокирующий клиент внутреннего API аккаунтов auth-service для реактивного профиля.
+ * Экземпляр auth-service выбирается через Eureka балансировщиком {@code @LoadBalanced WebClient.Builder}.
+ */
+@Component
+@Profile("reactive")
+@Slf4j
+public class ReactiveAuthServiceClient {
+    private final WebClient webClient;
+
+    public ReactiveAuthServiceClient(WebClient.Builder loadBalancedWebClientBuilder) {
+        this.webClient = loadBalancedWebClientBuilder
+                .baseUrl("http://auth-service/internal/auth/account")
+                .build();
+    }
+
+    /**
+     * @return {@code true}, если аккаунт существует, {@code false} при ответе 404
+     */
+    public Mono<Boolean> accountExists(UUID accountId) {
+        return webClient.get()
+                .uri("/{accountId}", accountId)
+                .exchangeToMono(response -> {
+                    if (response.statusCode().is2xxSuccessful()) {
+                        return response.releaseBody().thenReturn(Boolean.TRUE);
+                    }
+                    if (response.statusCode() == HttpStatus.NOT_FOUND) {
+                        return response.releaseBody().thenReturn(Boolean.FALSE);
+                    }
+                    return response.createError();
+                });
+    }
+
+    /**
+     * Удаляет аккаунт; повтор с тем же {@code idempotencyKey} auth-service не выполняет повторно.
+     * Ответ 404 означает, что аккаунт уже удалён, и ошибкой не считается.
+     */
+    public Mono<Void> deleteAccount(UUID accountId, UUID idempotencyKey) {
+        return webClient.delete()
+                .uri("/{accountId}", accountId)
+                .header(AuthServiceClient.IDEMPOTENCY_KEY_HEADER, idempotencyKey.toString())
+                .exchangeToMono(response -> {
+                    if (response.statusCode().is2xxSuccessful() || response.statusCode() == HttpStatus.NOT_FOUND) {
+                        return response.releaseBody();
+                    }
+                    return response.createError();
+                });
+    }
+}
@@ -0,0 +1,75 @@
+package ru.telros.practicum.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Метрики предохранителей и bulkhead вызовов auth-service сверх стандартных метрик resilience4j.
+ * <p>
+ * Предохранитель и bulkhead создаются на каждый метод {@link ru.telros.practicum.feign.AuthServiceClient}
+ * (spring.cloud.openfeign.circuitbreaker), их настройки — в разделе {@code resilience4j}.
+ * Здесь считаются переходы состояний {@code auth.client.circuit.transitions} с тегами {@code from} и {@code to}
+ * и отклонённые без вызова запросы {@code auth.client.rejected} с тегом {@code reason}.
+ */
+@Configuration
+@Slf4j
+public class AuthServiceResilienceConfig {
+
+    @Bean
+    public RegistryEventConsumer<CircuitBreaker> circuitBreakerMetricsConsumer(MeterRegistry meterRegistry) {
+        return new RegistryEventConsumer<>() {
+            @Override
+            public void onEntryAddedEvent(EntryAddedEvent<CircuitBreaker> event) {
+                CircuitBreaker circuitBreaker = event.getAddedEntry();
+                String name = circuitBreaker.getName();
+                circuitBreaker.getEventPublisher()
+                        .onStateTransition(transition -> {
+                            log.warn("Предохранитель {}: {}", name, transition.getStateTransition());
+                            meterRegistry.counter("auth.client.circuit.transitions", "name", name,
+                                    "from", transition.getStateTransition().getFromState().name(),
+                                    "to", transition.getStateTransition().getToState().name()).increment();
+                        })
+                        .onCallNotPermitted(rejected -> meterRegistry.counter("auth.client.rejected",
+                                "name", name, "reason", "circuit-open").increment());
+            }
+
+            @Override
+            public void onEntryRemovedEvent(EntryRemovedEvent<CircuitBreaker> event) {
+            }
+
+            @Override
+            public void onEntryReplacedEvent(EntryReplacedEvent<CircuitBreaker> event) {
+            }
+        };
+    }
+
+    @Bean
+    public RegistryEventConsumer<Bulkhead> bulkheadMetricsConsumer(MeterRegistry meterRegistry) {
+        return new RegistryEventConsumer<>() {
+            @Override
+            public void onEntryAddedEvent(EntryAddedEvent<Bulkhead> event) {
+                Bulkhead bulkhead = event.getAddedEntry();
+                String name = bulkhead.getName();
+                bulkhead.getEventPublisher()
+                        .onCallRejected(rejected -> meterRegistry.counter("auth.client.rejected",
+                                "name", name, "reason", "bulkhead-full").increment());
+            }
+
+            @Override
+            public void onEntryRemovedEvent(EntryRemovedEvent<Bulkhead> event) {
+            }
+
+            @Override
+            public void onEntryReplacedEvent(EntryReplacedEvent<Bulkhead> event) {
+            }
+        };
+    }
+}
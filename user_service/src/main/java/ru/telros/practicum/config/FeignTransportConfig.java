@@ -0,0 +1,34 @@
+package ru.telros.practicum.config;
+
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройка пула соединений Apache HttpClient 5 для Feign клиентов.
+ * <p>
+ * Размер пула, лимит на маршрут и время жизни соединения задаются в {@code spring.cloud.openfeign.httpclient}.
+ * Здесь соединение держится открытым не дольше {@code feign-transport.keep-alive} и не дольше, чем разрешает
+ * сервер в заголовке {@code Keep-Alive}; простаивающие дольше соединения закрываются фоновым потоком клиента,
+ * чтобы запрос не получил соединение, уже закрытое сервером.
+ */
+@Configuration
+@ConditionalOnProperty(value = "spring.cloud.openfeign.httpclient.hc5.enabled", havingValue = "true", matchIfMissing = true)
+public class FeignTransportConfig {
+
+    @Bean
+    public HttpClient5FeignConfiguration.HttpClientBuilderCustomizer keepAliveCustomizer(
+            @Value("${feign-transport.keep-alive:PT30S}") Duration keepAlive) {
+        TimeValue maxKeepAlive = TimeValue.ofMilliseconds(keepAlive.toMillis());
+        return builder -> builder
+                .setKeepAliveStrategy((response, context) -> maxKeepAlive.min(
+                        DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context)))
+                .evictIdleConnections(maxKeepAlive);
+    }
+}
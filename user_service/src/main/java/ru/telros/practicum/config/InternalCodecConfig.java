@@ -0,0 +1,35 @@
+package ru.telros.practicum.config;
+
+import feign.RequestInterceptor;
+import feign.codec.Encoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import ru.telros.practicum.feign.CborEncoder;
+
+/**
+ * Обмен с auth-service в CBOR вместо JSON, включается {@code feign-transport.codec: cbor}.
+ * <p>
+ * Тела запросов кодируются {@link CborEncoder}, ответ запрашивается в CBOR с JSON как запасным вариантом
+ * и разбирается стандартным декодером по {@code Content-Type}. Auth-service без поддержки CBOR ответит
+ * JSON, но запрос с телом отклонит с 415, поэтому настройка включается после обновления auth-service.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "feign-transport.codec", havingValue = "cbor")
+public class InternalCodecConfig {
+    private static final String ACCEPT = "application/cbor, application/json;q=0.5";
+
+    @Bean
+    public Encoder feignEncoder(MappingJackson2CborHttpMessageConverter cborConverter) {
+        return new CborEncoder(cborConverter.getObjectMapper());
+    }
+
+    @Bean
+    public RequestInterceptor cborAcceptInterceptor() {
+        return template -> template.header(HttpHeaders.ACCEPT, ACCEPT);
+    }
+}
@@ -0,0 +1,48 @@
+package ru.telros.practicum.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "photo-storage")
+public class PhotoStorageProperties {
+    /**
+     * Максимальный размер загружаемой фотографии, проверяется по мере чтения потока.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(10);
+    /**
+     * Время, в течение которого клиент может использовать фотографию из кэша без повторной проверки.
+     */
+    private Duration cacheMaxAge = Duration.ofMinutes(10);
+    private Variants variants = new Variants();
+
+    @Data
+    public static class Variants {
+        /**
+         * Размеры уменьшенных вариантов по наибольшей стороне, в пикселях.
+         */
+        private List<Integer> sizes = List.of(64, 256, 1024);
+        /**
+         * Качество JPEG-сжатия вариантов, от 0 до 1.
+         */
+        private float quality = 0.85f;
+        /**
+         * Число потоков, генерирующих варианты.
+         */
+        private int threads = 2;
+        /**
+         * Ёмкость очереди задач; при переполнении новые задачи отклоняются, а клиенту отдаётся оригинал.
+         */
+        private int queueCapacity = 100;
+        /**
+         * Максимальное число пикселей исходного изображения, которое допускается декодировать.
+         */
+        private long maxSourcePixels = 50_000_000L;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.telros.practicum.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import ru.telros.practicum.security.InternalAuthVerifier;
+import ru.telros.practicum.security.ReactiveJwtAuthFilter;
+import ru.telros.practicum.security.UserServiceJwtProvider;
+
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveSecurityUserServiceConfig {
+
+    @Bean(name = "userServiceSecurityFilterChain")
+    public SecurityWebFilterChain securityFilterChain(ServerHttpSecurity http,
+                                                      UserServiceJwtProvider jwtProvider,
+                                                      InternalAuthVerifier internalAuthVerifier) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(auth -> auth
+                        .pathMatchers("/actuator/health", "/actuator/health/**").permitAll() // metrics — только с аутентификацией
+                        .anyExchange().authenticated()
+                )
+                // как и в сервлетном режиме, неаутентифицированный запрос получает 403
+                .exceptionHandling(ex -> ex
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN))
+                )
+                .addFilterAt(new ReactiveJwtAuthFilter(jwtProvider, internalAuthVerifier),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package ru.telros.practicum.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Инфраструктура реактивного профиля.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig {
+
+    /**
+     * Tomcat остаётся в classpath ради сервлетного режима, поэтому сервер Netty выбирается явно.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder() {
+        return WebClient.builder();
+    }
+}
@@ -1,8 +1,10 @@
 package ru.telros.practicum.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -12,6 +14,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import ru.telros.practicum.security.UserServiceJwtAuthFilter;
 
 @Configuration
+@Profile("!reactive")
 @EnableWebSecurity
 @RequiredArgsConstructor
 public class SecurityUserServiceConfig {
@@ -23,6 +26,9 @@ public class SecurityUserServiceConfig {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll() // metrics — только с аутентификацией
+                        // потоковая отдача фотографии завершается в ASYNC-диспетчеризации уже авторизованного запроса
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
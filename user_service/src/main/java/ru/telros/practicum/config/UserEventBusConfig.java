@@ -0,0 +1,23 @@
+package ru.telros.practicum.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import ru.telros.practicum.event.InMemoryUserEventBus;
+import ru.telros.practicum.event.UserEventBus;
+
+/**
+ * Выбор реализации шины событий об изменениях профилей по {@code user-events.bus.type}.
+ * Без настройки используется шина внутри процесса.
+ */
+@Configuration
+@Profile("!reactive")
+public class UserEventBusConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "user-events.bus.type", havingValue = "in-memory", matchIfMissing = true)
+    public UserEventBus inMemoryUserEventBus() {
+        return new InMemoryUserEventBus();
+    }
+}
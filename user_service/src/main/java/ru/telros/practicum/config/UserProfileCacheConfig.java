@@ -0,0 +1,23 @@
+package ru.telros.practicum.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import ru.telros.practicum.cache.InMemorySharedUserProfileCache;
+import ru.telros.practicum.cache.SharedUserProfileCache;
+
+/**
+ * Выбор реализации общего уровня кэша профилей по {@code user-cache.shared.type}.
+ * Без настройки общий уровень отключён и используется только локальный кэш экземпляра.
+ */
+@Configuration
+@Profile("!reactive")
+public class UserProfileCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "user-cache.shared.type", havingValue = "in-memory")
+    public SharedUserProfileCache inMemorySharedUserProfileCache() {
+        return new InMemorySharedUserProfileCache();
+    }
+}
@@ -0,0 +1,49 @@
+package ru.telros.practicum.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+import java.util.List;
+
+/**
+ * Разбор условных заголовков и заголовка Range запроса фотографии, общий для сервлетного и реактивного контроллеров.
+ */
+final class PhotoRequests {
+
+    private PhotoRequests() {
+    }
+
+    static boolean isNotModified(HttpHeaders requestHeaders, String eTag, long lastModified) {
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            return ifNoneMatch.stream()
+                    .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                    .anyMatch(tag -> tag.equals("*") || tag.equals(eTag));
+        }
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        // HTTP-даты имеют секундную точность
+        return ifModifiedSince != -1 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Возвращает запрошенный диапазон или {@code null}, если нужно отдать фотографию целиком:
+     * заголовок Range отсутствует или некорректен, запрошено несколько диапазонов,
+     * либо If-Range не совпадает с текущим ETag.
+     */
+    static HttpRange resolveRange(HttpHeaders requestHeaders, String eTag) {
+        String rangeHeader = requestHeaders.getFirst(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(eTag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ru.telros.practicum.controller;
+
+import org.springframework.http.HttpHeaders;
+import ru.telros.practicum.exception.PreconditionFailedException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Преобразование версии профиля в ETag и разбор условных заголовков If-None-Match и If-Match.
+ * ETag профиля — значение его столбца version в кавычках.
+ */
+final class ProfileVersions {
+
+    private ProfileVersions() {
+    }
+
+    static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    static boolean isNotModified(HttpHeaders requestHeaders, String eTag) {
+        return requestHeaders.getIfNoneMatch().stream()
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(eTag));
+    }
+
+    /**
+     * Возвращает версии профиля, допустимые для клиента по заголовку If-Match (RFC 9110, 13.1.1),
+     * или {@code null}, если заголовок отсутствует или равен {@code *}.
+     * Условие выполнено, если текущая версия совпадает с любым ETag списка. Слабые и нечисловые ETag
+     * не совпадают с версией при строгом сравнении и пропускаются; если других в списке нет,
+     * запрос сразу отклоняется.
+     *
+     * @throws PreconditionFailedException если заголовок не содержит ни одной версии профиля
+     */
+    static Set<Long> expectedVersions(HttpHeaders requestHeaders) {
+        List<String> ifMatch = requestHeaders.getIfMatch();
+        if (ifMatch.isEmpty() || ifMatch.contains("*")) {
+            return null;
+        }
+        Set<Long> versions = new LinkedHashSet<>();
+        for (String tag : ifMatch) {
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(tag.substring(1, tag.length() - 1)));
+                } catch (NumberFormatException ignored) {
+                    // не версия профиля, не совпадает ни с одной
+                }
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("If-Match не соответствует версии профиля: " + ifMatch);
+        }
+        return versions;
+    }
+}
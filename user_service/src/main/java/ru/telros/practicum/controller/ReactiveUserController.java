@@ -0,0 +1,173 @@
+package ru.telros.practicum.controller;
+
+import jakarta.validation.Valid;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.telros.practicum.config.PhotoStorageProperties;
+import ru.telros.practicum.dto.user_service.PhotoInfoDto;
+import ru.telros.practicum.dto.user_service.UserContactsDto;
+import ru.telros.practicum.dto.user_service.UserDetailsDto;
+import ru.telros.practicum.dto.user_service.UserDto;
+import ru.telros.practicum.service.ReactiveUserService;
+
+import java.util.UUID;
+
+/**
+ * Реактивный вариант {@link UserController} с тем же API, активен в профиле {@code reactive}.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReactiveUserController {
+    ReactiveUserService userService;
+    PhotoStorageProperties photoStorageProperties;
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<UserDto>> getUserById(@PathVariable("userId") UUID userId,
+                                                     @AuthenticationPrincipal UUID accountId) {
+        return userService.getUserById(userId, accountId)
+                .map(user -> ResponseEntity.status(HttpStatus.OK).body(user));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<UserDto>> createUser(@RequestBody @Valid UserDto userDto,
+                                                    @AuthenticationPrincipal UUID accountId) {
+        return userService.createUser(userDto, accountId)
+                .map(user -> ResponseEntity.status(HttpStatus.CREATED).body(user));
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<ResponseEntity<Void>> deleteUser(@PathVariable("userId") UUID userId,
+                                                 @AuthenticationPrincipal UUID accountId) {
+        return userService.deleteUserById(userId, accountId)
+                .then(Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.NO_CONTENT).<Void>build()));
+    }
+
+    @PatchMapping("/{userId}/details")
+    public Mono<ResponseEntity<UserDto>> updateUserDetails(@PathVariable("userId") UUID userId,
+                                                           @RequestBody @Valid UserDetailsDto userDetailsDto,
+                                                           @AuthenticationPrincipal UUID accountId) {
+        return userService.updateUserDetails(userId, userDetailsDto, accountId)
+                .map(user -> ResponseEntity.status(HttpStatus.OK).body(user));
+    }
+
+    @PatchMapping("/{userId}/contacts")
+    public Mono<ResponseEntity<UserDto>> updateUserContacts(@PathVariable("userId") UUID userId,
+                                                            @RequestBody @Valid UserContactsDto userContactsDto,
+                                                            @AuthenticationPrincipal UUID accountId) {
+        return userService.updateUserContacts(userId, userContactsDto, accountId)
+                .map(user -> ResponseEntity.status(HttpStatus.OK).body(user));
+    }
+
+    @PostMapping("/{userId}/photo")
+    public Mono<ResponseEntity<Void>> uploadPhoto(@PathVariable("userId") UUID userId,
+                                                  @RequestPart("file") FilePart file,
+                                                  @AuthenticationPrincipal UUID accountId) {
+        MediaType contentType = file.headers().getContentType();
+        return userService.uploadPhoto(userId, accountId, file.content(),
+                        contentType == null ? null : contentType.toString())
+                .then(Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.OK).<Void>build()));
+    }
+
+    /**
+     * Отдаёт фотографию пользователя с теми же правилами HTTP-кэширования и Range, что и {@link UserController}.
+     * Содержимое читается из хранилища неблокирующим потоком буферов.
+     */
+    @GetMapping("/{userId}/photo")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getPhoto(@PathVariable("userId") UUID userId,
+                                                           @RequestParam(value = "size", required = false) Integer size,
+                                                           @RequestHeader HttpHeaders requestHeaders,
+                                                           @AuthenticationPrincipal UUID accountId) {
+        return userService.getPhotoInfo(userId, accountId, size)
+                .map(photo -> photoResponse(userId, photo, requestHeaders))
+                .switchIfEmpty(Mono.fromSupplier(() -> ResponseEntity
+                        .status(HttpStatus.OK)
+                        .contentType(MediaType.IMAGE_JPEG)
+                        .<Flux<DataBuffer>>build()));
+    }
+
+    @DeleteMapping("/{userId}/photo")
+    public Mono<ResponseEntity<Void>> deletePhoto(@PathVariable("userId") UUID userId,
+                                                  @AuthenticationPrincipal UUID accountId) {
+        return userService.deletePhoto(userId, accountId)
+                .then(Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.NO_CONTENT).<Void>build()));
+    }
+
+    private ResponseEntity<Flux<DataBuffer>> photoResponse(UUID userId, PhotoInfoDto photo, HttpHeaders requestHeaders) {
+        String eTag = "\"" + photo.getSha256() + "\"";
+        long lastModified = photo.getUploadedAt().toEpochMilli();
+        CacheControl cacheControl = CacheControl.maxAge(photoStorageProperties.getCacheMaxAge()).cachePrivate();
+
+        if (PhotoRequests.isNotModified(requestHeaders, eTag, lastModified)) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .lastModified(lastModified)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        long photoSize = photo.getSize();
+        Integer variant = photo.getVariant();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        headers.setLastModified(lastModified);
+        headers.setCacheControl(cacheControl);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setContentType(MediaType.parseMediaType(photo.getContentType()));
+
+        HttpRange range = PhotoRequests.resolveRange(requestHeaders, eTag);
+        if (range == null) {
+            headers.setContentLength(photoSize);
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .headers(headers)
+                    .body(userService.readPhoto(userId, variant, 0, photoSize));
+        }
+
+        long start;
+        long end;
+        try {
+            start = range.getRangeStart(photoSize);
+            end = range.getRangeEnd(photoSize);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + photoSize)
+                    .build();
+        }
+        long length = end - start + 1;
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + photoSize);
+        headers.setContentLength(length);
+        return ResponseEntity
+                .status(HttpStatus.PARTIAL_CONTENT)
+                .headers(headers)
+                .body(userService.readPhoto(userId, variant, start, length));
+    }
+}
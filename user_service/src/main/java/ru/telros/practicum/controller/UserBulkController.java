@@ -0,0 +1,61 @@
+package ru.telros.practicum.controller;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.telros.practicum.config.SecurityContext;
+import ru.telros.practicum.dto.user_service.BulkImportResultDto;
+import ru.telros.practicum.service.UserBulkService;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Массовый импорт и экспорт профилей потоком NDJSON ({@code application/x-ndjson}) или CSV ({@code text/csv}).
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserBulkController {
+    UserBulkService userBulkService;
+    SecurityContext securityContext;
+
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<BulkImportResultDto> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                           InputStream data) {
+        UUID accountId = securityContext.getAccountId();
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(userBulkService.importUsers(data, contentType, accountId));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                                             @RequestParam(value = "accountId", required = false) UUID filterAccountId) {
+        UUID accountId = securityContext.getAccountId();
+        MediaType mediaType = "csv".equalsIgnoreCase(format) ? UserBulkService.CSV : UserBulkService.NDJSON;
+        Consumer<OutputStream> export = userBulkService.exportUsers(mediaType, filterAccountId, accountId);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=users." + ("csv".equalsIgnoreCase(format) ? "csv" : "ndjson"))
+                .body(export::accept);
+    }
+}
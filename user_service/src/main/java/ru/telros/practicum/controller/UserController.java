@@ -4,6 +4,10 @@ import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -13,33 +17,92 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.telros.practicum.config.PhotoStorageProperties;
 import ru.telros.practicum.config.SecurityContext;
+import ru.telros.practicum.dto.user_service.PhotoInfoDto;
+import ru.telros.practicum.dto.user_service.UserChangePageDto;
 import ru.telros.practicum.dto.user_service.UserContactsDto;
 import ru.telros.practicum.dto.user_service.UserDetailsDto;
 import ru.telros.practicum.dto.user_service.UserDto;
+import ru.telros.practicum.dto.user_service.UserPageDto;
+import ru.telros.practicum.dto.user_service.UserSuggestionDto;
+import ru.telros.practicum.repository.UserSearchFilter;
 import ru.telros.practicum.service.UserService;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class UserController {
     UserService userService;
     SecurityContext securityContext;
+    PhotoStorageProperties photoStorageProperties;
 
+    /**
+     * Возвращает профиль пользователя; ETag ответа — версия профиля.
+     * Если версия совпадает с If-None-Match, возвращается 304 без тела.
+     */
     @GetMapping("/{userId}")
-    ResponseEntity<UserDto> getUserById(@PathVariable("userId") UUID userId) {
+    ResponseEntity<UserDto> getUserById(@PathVariable("userId") UUID userId,
+                                        @RequestHeader HttpHeaders requestHeaders) {
         UUID accountId = securityContext.getAccountId();
+        UserDto user = userService.getUserById(userId, accountId);
+        String eTag = ProfileVersions.eTag(user.getVersion());
+        if (ProfileVersions.isNotModified(requestHeaders, eTag)) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .build();
+        }
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(userService.getUserById(userId, accountId));
+                .eTag(eTag)
+                .body(user);
+    }
+
+    @GetMapping
+    public ResponseEntity<UserPageDto> findUsers(@RequestParam(value = "accountId", required = false) UUID filterAccountId,
+                                                 @RequestParam(value = "lastName", required = false) String lastName,
+                                                 @RequestParam(value = "email", required = false) String email,
+                                                 @RequestParam(value = "after", required = false) UUID after,
+                                                 @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        UUID accountId = securityContext.getAccountId();
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(userService.findUsers(new UserSearchFilter(filterAccountId, lastName, email), after, limit, accountId));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<UserSuggestionDto>> searchUsers(@RequestParam("q") String query,
+                                                               @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        UUID accountId = securityContext.getAccountId();
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(userService.searchUsers(query, limit, accountId));
+    }
+
+    /**
+     * Журнал изменений профилей для инкрементальной синхронизации вместо периодического опроса профилей.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<UserChangePageDto> getChanges(@RequestParam(value = "since", defaultValue = "0") long since,
+                                                        @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        UUID accountId = securityContext.getAccountId();
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(userService.getChanges(since, limit, accountId));
     }
 
     @PostMapping
@@ -50,52 +113,136 @@ public class UserController {
                 .body(userService.createUser(userDto, accountId));
     }
 
+    /**
+     * Удаляет профиль пользователя. Если передан If-Match, профиль удаляется только в одной из указанных версий,
+     * иначе возвращается 412.
+     */
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Void> deleteUser(@PathVariable("userId") UUID userId) {
+    public ResponseEntity<Void> deleteUser(@PathVariable("userId") UUID userId,
+                                           @RequestHeader HttpHeaders requestHeaders) {
         UUID accountId = securityContext.getAccountId();
-        userService.deleteUserById(userId, accountId);
+        userService.deleteUserById(userId, accountId, ProfileVersions.expectedVersions(requestHeaders));
         return ResponseEntity
                 .status(HttpStatus.NO_CONTENT)
                 .build();
     }
 
+    /**
+     * Обновляет детальную информацию профиля. Если передан If-Match, профиль обновляется только
+     * в одной из указанных версий, иначе возвращается 412; ETag ответа — новая версия профиля.
+     */
     @PatchMapping("/{userId}/details")
     public ResponseEntity<UserDto> updateUserDetails(@PathVariable("userId") UUID userId,
-                                                     @RequestBody @Valid UserDetailsDto userDetailsDto) {
+                                                     @RequestBody @Valid UserDetailsDto userDetailsDto,
+                                                     @RequestHeader HttpHeaders requestHeaders) {
         UUID accountId = securityContext.getAccountId();
+        UserDto user = userService.updateUserDetails(userId, userDetailsDto, accountId,
+                ProfileVersions.expectedVersions(requestHeaders));
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(userService.updateUserDetails(userId, userDetailsDto, accountId));
+                .eTag(ProfileVersions.eTag(user.getVersion()))
+                .body(user);
     }
 
+    /**
+     * Обновляет контактную информацию профиля с теми же условиями If-Match, что и {@link #updateUserDetails}.
+     */
     @PatchMapping("/{userId}/contacts")
     public ResponseEntity<UserDto> updateUserContacts(@PathVariable("userId") UUID userId,
-                                                      @RequestBody @Valid UserContactsDto userContactsDto) {
+                                                      @RequestBody @Valid UserContactsDto userContactsDto,
+                                                      @RequestHeader HttpHeaders requestHeaders) {
         UUID accountId = securityContext.getAccountId();
+        UserDto user = userService.updateUserContacts(userId, userContactsDto, accountId,
+                ProfileVersions.expectedVersions(requestHeaders));
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(userService.updateUserContacts(userId, userContactsDto, accountId));
+                .eTag(ProfileVersions.eTag(user.getVersion()))
+                .body(user);
     }
 
 
     @PostMapping("/{userId}/photo")
     public ResponseEntity<Void> uploadPhoto(@PathVariable("userId") UUID userId,
                                             @RequestParam("file") MultipartFile file) throws IOException {
-        userService.uploadPhoto(userId, file.getBytes());
+        UUID accountId = securityContext.getAccountId();
+        try (InputStream data = file.getInputStream()) {
+            userService.uploadPhoto(userId, accountId, data, file.getContentType());
+        }
 
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .build();
     }
 
+    /**
+     * Отдаёт фотографию пользователя с поддержкой HTTP-кэширования.
+     *
+     * ETag — SHA-256 хэш содержимого, Last-Modified — время загрузки; оба берутся из метаданных,
+     * поэтому ответ 304 на If-None-Match/If-Modified-Since формируется без чтения фотографии.
+     * Заголовок Range с одним диапазоном обслуживается ответом 206, недопустимый диапазон — 416.
+     * Параметр size запрашивает уменьшенный вариант фотографии.
+     */
     @GetMapping("/{userId}/photo")
-    public ResponseEntity<byte[]> getPhoto(@PathVariable("userId") UUID userId) {
+    public ResponseEntity<StreamingResponseBody> getPhoto(@PathVariable("userId") UUID userId,
+                                                          @RequestParam(value = "size", required = false) Integer size,
+                                                          @RequestHeader HttpHeaders requestHeaders) {
         UUID accountId = securityContext.getAccountId();
-        return ResponseEntity
-                .status(HttpStatus.OK)
-                .contentType(MediaType.IMAGE_JPEG)
-                .body(userService.getPhoto(userId, accountId));
+        PhotoInfoDto photo = userService.getPhotoInfo(userId, accountId, size);
+        if (photo == null) {
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .contentType(MediaType.IMAGE_JPEG)
+                    .build();
+        }
+        String eTag = "\"" + photo.getSha256() + "\"";
+        long lastModified = photo.getUploadedAt().toEpochMilli();
+        CacheControl cacheControl = CacheControl.maxAge(photoStorageProperties.getCacheMaxAge()).cachePrivate();
+
+        if (PhotoRequests.isNotModified(requestHeaders, eTag, lastModified)) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .lastModified(lastModified)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        long photoSize = photo.getSize();
+        Integer variant = photo.getVariant();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        headers.setLastModified(lastModified);
+        headers.setCacheControl(cacheControl);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setContentType(MediaType.parseMediaType(photo.getContentType()));
 
+        HttpRange range = PhotoRequests.resolveRange(requestHeaders, eTag);
+        if (range == null) {
+            headers.setContentLength(photoSize);
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .headers(headers)
+                    .body(out -> userService.writePhoto(userId, variant, out, 0, photoSize));
+        }
+
+        long start;
+        long end;
+        try {
+            start = range.getRangeStart(photoSize);
+            end = range.getRangeEnd(photoSize);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + photoSize)
+                    .build();
+        }
+        long length = end - start + 1;
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + photoSize);
+        headers.setContentLength(length);
+        return ResponseEntity
+                .status(HttpStatus.PARTIAL_CONTENT)
+                .headers(headers)
+                .body(out -> userService.writePhoto(userId, variant, out, start, length));
     }
 
     @DeleteMapping("/{userId}/photo")
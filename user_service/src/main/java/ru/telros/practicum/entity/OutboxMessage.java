@@ -0,0 +1,51 @@
+package ru.telros.practicum.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.telros.practicum.id.GeneratedUuidV7;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Запись transactional outbox: действие в другом сервисе, сохранённое в одной транзакции
+ * с изменением, которое его вызвало. Идентификатор записи передаётся получателю как ключ идемпотентности.
+ */
+@Entity
+@Table(name = "outbox_messages", indexes = {
+        @Index(name = "idx_outbox_messages_next_attempt_at", columnList = "nextAttemptAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OutboxMessage {
+    @Id
+    @GeneratedUuidV7
+    UUID id;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 64)
+    OutboxMessageType type;
+    @Column(nullable = false)
+    UUID aggregateId;
+    @Column(nullable = false)
+    Instant createdAt;
+    @Column(nullable = false)
+    Instant nextAttemptAt;
+    @Column(nullable = false)
+    int attempts;
+    @Column(length = 1000)
+    String lastError;
+}
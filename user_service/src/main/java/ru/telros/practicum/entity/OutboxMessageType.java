@@ -0,0 +1,11 @@
+package ru.telros.practicum.entity;
+
+/**
+ * Действия в других сервисах, которые доставляет {@link ru.telros.practicum.service.OutboxRelay}.
+ */
+public enum OutboxMessageType {
+    /**
+     * Удаление аккаунта в auth-service после удаления профиля; {@code aggregateId} — идентификатор аккаунта.
+     */
+    ACCOUNT_DELETION
+}
@@ -0,0 +1,35 @@
+package ru.telros.practicum.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "user_photo_metadata")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PhotoMetadata {
+    @Id
+    UUID userId;
+    @Column(nullable = false)
+    long size;
+    @Column
+    String contentType;
+    @Column(nullable = false, length = 64)
+    String sha256;
+    @Column(nullable = false)
+    Instant uploadedAt;
+}
@@ -0,0 +1,45 @@
+package ru.telros.practicum.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "user_photo_variant_metadata")
+@IdClass(PhotoVariantId.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PhotoVariantMetadata {
+    @Id
+    UUID userId;
+    @Id
+    int size;
+    @Column(nullable = false)
+    long byteSize;
+    @Column(nullable = false)
+    String contentType;
+    @Column(nullable = false, length = 64)
+    String sha256;
+    /**
+     * Хэш оригинала, из которого построен вариант. Вариант считается актуальным,
+     * только пока совпадает с хэшем текущей фотографии.
+     */
+    @Column(nullable = false, length = 64)
+    String sourceSha256;
+    @Column(nullable = false)
+    Instant createdAt;
+}
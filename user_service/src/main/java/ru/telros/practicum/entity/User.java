@@ -2,23 +2,27 @@ package ru.telros.practicum.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Lob;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import ru.telros.practicum.id.GeneratedUuidV7;
 
 import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users")
+// индекс по lower(email) создаётся в schema.sql: JPA не описывает функциональные индексы
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_account_id_id", columnList = "accountId, id"),
+        @Index(name = "idx_users_last_name_id", columnList = "lastName, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -26,7 +30,7 @@ import java.util.UUID;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     UUID id;
     @Column(nullable = false)
     UUID accountId;
@@ -40,8 +44,8 @@ public class User {
     String email;
     @Column
     String phone;
-
-    @Column(name = "photo", columnDefinition = "BYTEA")
-    byte[]photo;
-
+    // значение по умолчанию заполняет версию у строк, созданных до появления столбца
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    Long version;
 }
@@ -0,0 +1,55 @@
+package ru.telros.practicum.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Запись журнала изменений профилей для GET /api/users/changes.
+ * Номер записи берётся из identity-столбца: в отличие от пула значений последовательности
+ * он возрастает в порядке вставки на всех экземплярах сервиса.
+ */
+@Entity
+@Table(name = "user_changes", indexes = {
+        @Index(name = "idx_user_changes_account_id_id", columnList = "accountId, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+    @Column(nullable = false)
+    UUID userId;
+    @Column(nullable = false)
+    UUID accountId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    UserChangeType type;
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    Map<String, String> changes;
+    @Column(nullable = false)
+    Instant changedAt;
+}
@@ -0,0 +1,7 @@
+package ru.telros.practicum.entity;
+
+public enum UserChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
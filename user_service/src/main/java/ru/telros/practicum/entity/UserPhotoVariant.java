@@ -0,0 +1,35 @@
+package ru.telros.practicum.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "user_photo_variants")
+@IdClass(PhotoVariantId.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserPhotoVariant {
+    @Id
+    UUID userId;
+    @Id
+    int size;
+
+    @ToString.Exclude
+    @Column(name = "data", columnDefinition = "BYTEA", nullable = false)
+    byte[] data;
+}
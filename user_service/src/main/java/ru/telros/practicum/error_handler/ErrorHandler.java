@@ -4,9 +4,17 @@ import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import ru.telros.practicum.exception.AccountNotFoundException;
+import ru.telros.practicum.exception.InvalidImportFormatException;
+import ru.telros.practicum.exception.PhotoTooLargeException;
+import ru.telros.practicum.exception.PreconditionFailedException;
+import ru.telros.practicum.exception.ServiceUnavailableException;
 import ru.telros.practicum.exception.UserNotFoundException;
 import ru.telros.practicum.exception.ValidationException;
 
@@ -25,19 +33,52 @@ public class ErrorHandler extends BaseErrorHandler {
         return handleException(ex, HttpStatus.NOT_IMPLEMENTED);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(RuntimeException ex) {
+        return handleException(ex, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(WebClientResponseException.class)
+    public ResponseEntity<ErrorResponse> handleWebClientException(WebClientResponseException ex) {
+        return handleException(ex, HttpStatus.NOT_IMPLEMENTED);
+    }
+
+    @ExceptionHandler({WebExchangeBindException.class,
+            InvalidImportFormatException.class})
+    public ResponseEntity<ErrorResponse> handleBadRequestException(RuntimeException ex) {
+        return handleException(ex, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<ErrorResponse> handleNotImplementedException(RuntimeException ex) {
         return handleException(ex, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler({PreconditionFailedException.class,
+            ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(RuntimeException ex) {
+        return handleException(ex, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler({PhotoTooLargeException.class,
+            MaxUploadSizeExceededException.class})
+    public ResponseEntity<ErrorResponse> handlePayloadTooLargeException(RuntimeException ex) {
+        return handleException(ex, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     @Override
     protected String getFriendlyMessage(RuntimeException ex) {
         String className = ex.getClass().getSimpleName();
         return switch (className) {
             case "UserNotFoundException" -> "User not found";
             case "AccountNotFoundException" -> "Account not found";
-            case "FeignException" -> "Service call failed";
+            case "FeignException", "WebClientResponseException" -> "Service call failed";
+            case "ServiceUnavailableException" -> "Service temporarily unavailable";
+            case "WebExchangeBindException" -> "Запрос составлен некорректно";
+            case "InvalidImportFormatException" -> "Invalid import format";
             case "ValidationException" -> "Verification error";
+            case "PreconditionFailedException", "ObjectOptimisticLockingFailureException" -> "Profile was modified";
+            case "PhotoTooLargeException", "MaxUploadSizeExceededException" -> "Photo is too large";
             default -> "An unexpected error occurred";
         };
     }
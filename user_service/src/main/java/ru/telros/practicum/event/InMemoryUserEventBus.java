@@ -0,0 +1,34 @@
+package ru.telros.practicum.event;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Шина событий внутри процесса ({@code user-events.bus.type: in-memory}, по умолчанию).
+ * Подписчики вызываются синхронно в потоке, зафиксировавшем транзакцию; ошибка подписчика
+ * логируется и не мешает остальным.
+ */
+@Slf4j
+public class InMemoryUserEventBus implements UserEventBus {
+    private final List<Consumer<UserChangedEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(UserChangedEvent event) {
+        for (Consumer<UserChangedEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException ex) {
+                log.warn("Ошибка подписчика события {} пользователя {}: {}",
+                        event.type(), event.userId(), ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<UserChangedEvent> listener) {
+        listeners.add(listener);
+    }
+}
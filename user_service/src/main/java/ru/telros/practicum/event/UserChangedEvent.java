@@ -0,0 +1,20 @@
+package ru.telros.practicum.event;
+
+import ru.telros.practicum.entity.UserChangeType;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Изменение профиля пользователя, публикуемое в {@link UserEventBus} после фиксации транзакции.
+ *
+ * @param userId    идентификатор пользователя
+ * @param accountId аккаунт-владелец профиля
+ * @param type      вид изменения
+ * @param changes   новые значения полей: все поля при создании, заданные запросом при обновлении, пусто при удалении
+ * @param changedAt время изменения
+ */
+public record UserChangedEvent(UUID userId, UUID accountId, UserChangeType type,
+                               Map<String, String> changes, Instant changedAt) {
+}
@@ -0,0 +1,18 @@
+package ru.telros.practicum.event;
+
+import java.util.function.Consumer;
+
+/**
+ * Шина событий об изменениях профилей для других сервисов.
+ * <p>
+ * Реализация поверх брокера сообщений подключается бином этого типа; по умолчанию используется
+ * {@link InMemoryUserEventBus}. События публикуются только после фиксации транзакции, поэтому подписчик
+ * может сразу прочитать изменённый профиль. Доставка не гарантирована: для надёжной синхронизации
+ * потребители используют журнал GET /api/users/changes.
+ */
+public interface UserEventBus {
+
+    void publish(UserChangedEvent event);
+
+    void subscribe(Consumer<UserChangedEvent> listener);
+}
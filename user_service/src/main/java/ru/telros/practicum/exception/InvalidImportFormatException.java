@@ -0,0 +1,7 @@
+package ru.telros.practicum.exception;
+
+public class InvalidImportFormatException extends RuntimeException {
+    public InvalidImportFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.telros.practicum.exception;
+
+public class PhotoTooLargeException extends RuntimeException {
+    public PhotoTooLargeException(long maxSize) {
+        super("Размер фотографии превышает допустимый, байт: " + maxSize);
+    }
+}
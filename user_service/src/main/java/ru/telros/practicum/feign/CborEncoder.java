@@ -0,0 +1,37 @@
+package ru.telros.practicum.feign;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Кодирует тело Feign запроса в CBOR и проставляет {@code Content-Type: application/cbor}.
+ * <p>
+ * Стандартный кодировщик выбирает формат по {@code Content-Type} из {@code consumes} метода,
+ * а перехватчики запросов вызываются уже после кодирования, поэтому формат тела задаётся здесь.
+ */
+public class CborEncoder implements Encoder {
+    private final ObjectMapper cborMapper;
+
+    public CborEncoder(ObjectMapper cborMapper) {
+        this.cborMapper = cborMapper;
+    }
+
+    @Override
+    public void encode(Object object, Type bodyType, RequestTemplate template) {
+        try {
+            template.body(cborMapper.writerFor(cborMapper.constructType(bodyType)).writeValueAsBytes(object), null);
+        } catch (JsonProcessingException ex) {
+            throw new EncodeException("Не удалось закодировать тело запроса в CBOR: " + ex.getMessage(), ex);
+        }
+        template.header(HttpHeaders.CONTENT_TYPE, List.of());
+        template.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE);
+    }
+}
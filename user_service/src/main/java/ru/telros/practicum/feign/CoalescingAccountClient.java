@@ -0,0 +1,281 @@
+package ru.telros.practicum.feign;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.telros.practicum.cache.LastKnownAccountCache;
+import ru.telros.practicum.dto.auth_service.AccountDto;
+import ru.telros.practicum.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Объединяет конкурентные запросы аккаунтов в пакетные вызовы {@code POST /internal/auth/account/batch}.
+ * <p>
+ * Запросы копятся не дольше {@code account-batch.window} или до {@code account-batch.max-size} идентификаторов,
+ * после чего отправляются в auth-service одним вызовом. Одинаковые идентификаторы в одном окне
+ * получают общий результат.
+ * <p>
+ * Если пакетный запрос не ответил за {@code account-batch.hedge-delay}, параллельно отправляется повторный,
+ * и используется первый успешный ответ; запрос только читает данные, поэтому повтор безопасен.
+ * Когда auth-service недоступен, аккаунты отдаются из {@link LastKnownAccountCache}, если они там есть.
+ * <p>
+ * Очередь пакетов, ожидающих потока, ограничена {@code account-batch.queue-capacity}: при её переполнении
+ * пакет не ждёт, а сразу обслуживается так же, как при недоступном auth-service.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class CoalescingAccountClient {
+    private final AuthServiceClient authServiceClient;
+    private final LastKnownAccountCache lastKnownAccounts;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Duration hedgeDelay;
+    private final ScheduledThreadPoolExecutor timer;
+    private final ExecutorService dispatcher;
+    private final ExecutorService hedgeExecutor;
+    private final DistributionSummary batchSizes;
+    private final Counter hedgedBatches;
+    private final Counter lastKnownServed;
+    private final Counter rejectedBatches;
+
+    private final Object lock = new Object();
+    private Map<UUID, CompletableFuture<Optional<AccountDto>>> pending = new HashMap<>();
+    private ScheduledFuture<?> flushTimer;
+
+    public CoalescingAccountClient(AuthServiceClient authServiceClient,
+                                   LastKnownAccountCache lastKnownAccounts,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${account-batch.window:PT0.002S}") Duration window,
+                                   @Value("${account-batch.max-size:64}") int maxBatchSize,
+                                   @Value("${account-batch.threads:4}") int threads,
+                                   @Value("${account-batch.queue-capacity:256}") int queueCapacity,
+                                   @Value("${account-batch.hedge-delay:PT0S}") Duration hedgeDelay,
+                                   @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.authServiceClient = authServiceClient;
+        this.lastKnownAccounts = lastKnownAccounts;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.hedgeDelay = hedgeDelay;
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "account-batch-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+        // Вызов auth-service блокирует поток на время HTTP запроса, поэтому в режиме виртуальных потоков
+        // каждый пакет отправляется в собственном виртуальном потоке
+        this.dispatcher = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("account-batch-", 1).factory())
+                : new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity),
+                        Thread.ofPlatform().name("account-batch-", 1).daemon().factory(),
+                        new ThreadPoolExecutor.AbortPolicy());
+        // Попытки при хеджировании только ждут ответа auth-service, поэтому всегда выполняются в виртуальных потоках
+        this.hedgeExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("account-hedge-", 1).factory());
+        this.batchSizes = DistributionSummary.builder("account.batch.size")
+                .description("Число идентификаторов в пакетном запросе аккаунтов")
+                .register(meterRegistry);
+        this.hedgedBatches = Counter.builder("account.batch.hedged")
+                .description("Пакетные запросы аккаунтов, для которых отправлен повторный запрос")
+                .register(meterRegistry);
+        this.lastKnownServed = Counter.builder("account.last-known.served")
+                .description("Аккаунты, отданные из последних известных при недоступном auth-service")
+                .register(meterRegistry);
+        this.rejectedBatches = Counter.builder("account.batch.rejected")
+                .description("Пакетные запросы аккаунтов, отклонённые из-за переполнения очереди")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ставит идентификатор в текущий пакет.
+     *
+     * @param accountId идентификатор аккаунта
+     * @return аккаунт или пустой {@link Optional}, если auth-service его не знает
+     */
+    public CompletableFuture<Optional<AccountDto>> getAccount(UUID accountId) {
+        CompletableFuture<Optional<AccountDto>> future;
+        Map<UUID, CompletableFuture<Optional<AccountDto>>> full = null;
+        synchronized (lock) {
+            future = pending.computeIfAbsent(accountId, id -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (flushTimer == null) {
+                flushTimer = timer.schedule(this::flushByTimer, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            submit(full);
+        }
+        return future;
+    }
+
+    /**
+     * Блокирующий вариант {@link #getAccount(UUID)}: ошибки вызова пробрасываются как есть.
+     *
+     * @param accountId идентификатор аккаунта
+     * @return аккаунт или пустой {@link Optional}, если auth-service его не знает
+     */
+    public Optional<AccountDto> findAccount(UUID accountId) {
+        try {
+            return getAccount(accountId).join();
+        } catch (CompletionException ex) {
+            throw unwrap(ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdown();
+        dispatcher.shutdown();
+        hedgeExecutor.shutdown();
+    }
+
+    private void flushByTimer() {
+        Map<UUID, CompletableFuture<Optional<AccountDto>>> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            submit(batch);
+        }
+    }
+
+    private void submit(Map<UUID, CompletableFuture<Optional<AccountDto>>> batch) {
+        try {
+            dispatcher.execute(() -> dispatch(batch));
+        } catch (RejectedExecutionException ex) {
+            rejectedBatches.increment();
+            log.warn("Очередь пакетных запросов аккаунтов переполнена, пакет из {} аккаунтов отклонён", batch.size());
+            serveLastKnown(batch, new ServiceUnavailableException("Очередь запросов аккаунтов переполнена", ex));
+        }
+    }
+
+    private Map<UUID, CompletableFuture<Optional<AccountDto>>> takePending() {
+        if (flushTimer != null) {
+            flushTimer.cancel(false);
+            flushTimer = null;
+        }
+        Map<UUID, CompletableFuture<Optional<AccountDto>>> batch = pending;
+        pending = new HashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<UUID, CompletableFuture<Optional<AccountDto>>> batch) {
+        batchSizes.record(batch.size());
+        log.debug("Пакетный запрос {} аккаунтов в auth-service", batch.size());
+        try {
+            List<AccountDto> found = fetch(batch.keySet());
+            Map<UUID, AccountDto> byId = found == null ? Map.of() : found.stream()
+                    .collect(Collectors.toMap(AccountDto::getId, Function.identity()));
+            batch.forEach((id, future) -> {
+                AccountDto account = byId.get(id);
+                if (account == null) {
+                    lastKnownAccounts.invalidate(id);
+                } else {
+                    lastKnownAccounts.put(account);
+                }
+                future.complete(Optional.ofNullable(account));
+            });
+        } catch (ServiceUnavailableException ex) {
+            log.warn("Auth-service недоступен, аккаунты берутся из последних известных: {}", ex.getMessage());
+            serveLastKnown(batch, ex);
+        } catch (RuntimeException ex) {
+            log.warn("Ошибка пакетного запроса аккаунтов: {}", ex.getMessage());
+            batch.values().forEach(future -> future.completeExceptionally(ex));
+        }
+    }
+
+    /**
+     * Завершает запросы пакета последними известными аккаунтами, а неизвестные — ошибкой {@code failure}.
+     */
+    private void serveLastKnown(Map<UUID, CompletableFuture<Optional<AccountDto>>> batch,
+                                ServiceUnavailableException failure) {
+        batch.forEach((id, future) -> lastKnownAccounts.find(id).ifPresentOrElse(account -> {
+            lastKnownServed.increment();
+            future.complete(Optional.of(account));
+        }, () -> future.completeExceptionally(failure)));
+    }
+
+    private List<AccountDto> fetch(Set<UUID> accountIds) {
+        if (hedgeDelay.isZero()) {
+            return authServiceClient.getAccounts(accountIds).getBody();
+        }
+        CompletableFuture<List<AccountDto>> primary = CompletableFuture.supplyAsync(
+                () -> authServiceClient.getAccounts(accountIds).getBody(), hedgeExecutor);
+        try {
+            return primary.get(hedgeDelay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            log.debug("Нет ответа на пакетный запрос за {}, отправляется повторный", hedgeDelay);
+            hedgedBatches.increment();
+            CompletableFuture<List<AccountDto>> hedge = CompletableFuture.supplyAsync(
+                    () -> authServiceClient.getAccounts(accountIds).getBody(), hedgeExecutor);
+            try {
+                return firstSuccessful(primary, hedge).join();
+            } catch (CompletionException failure) {
+                throw unwrap(failure);
+            }
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Запрос аккаунтов прерван", ex);
+        }
+    }
+
+    /**
+     * Завершается первым успешным результатом или ошибкой последней из попыток, если неудачны обе.
+     */
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> attempt : List.of(first, second)) {
+            attempt.whenComplete((value, ex) -> {
+                if (ex == null) {
+                    result.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static RuntimeException unwrap(Exception ex) {
+        Throwable cause = ex.getCause();
+        while (cause instanceof CompletionException || cause instanceof ExecutionException) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return ex instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.telros.practicum.feign;
+
+import feign.Capability;
+import feign.Client;
+import feign.Response;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Распаковывает ответы Feign клиентов, сжатые gzip.
+ * <p>
+ * Apache HttpClient 5 распаковывает ответ сам и убирает заголовок {@code Content-Encoding},
+ * а JDK {@link java.net.http.HttpClient} (транспорт {@code spring.cloud.openfeign.http2client}) — нет.
+ * {@link Client.Default} распаковывает ответ, но оставляет заголовок, поэтому тело проверяется
+ * по сигнатуре gzip, а не только по заголовку.
+ * Заголовок {@code Accept-Encoding: gzip} добавляется при {@code spring.cloud.openfeign.compression.response.enabled}.
+ */
+@Component
+public class GzipDecodingCapability implements Capability {
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> decompress(client.execute(request, options));
+    }
+
+    private static Response decompress(Response response) throws IOException {
+        Collection<String> encoding = response.headers().get(HttpHeaders.CONTENT_ENCODING);
+        if (response.body() == null || encoding == null || !encoding.contains("gzip")) {
+            return response;
+        }
+        InputStream body = new BufferedInputStream(response.body().asInputStream());
+        Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(response.headers());
+        headers.remove(HttpHeaders.CONTENT_ENCODING);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        return response.toBuilder()
+                .headers(headers)
+                .body(isGzip(body) ? new GZIPInputStream(body) : body, null)
+                .build();
+    }
+
+    private static boolean isGzip(InputStream body) throws IOException {
+        body.mark(2);
+        int first = body.read();
+        int second = body.read();
+        body.reset();
+        return first == 0x1f && second == 0x8b;
+    }
+}
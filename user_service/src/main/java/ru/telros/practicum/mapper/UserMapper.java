@@ -5,20 +5,40 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
+import ru.telros.practicum.dto.user_service.PhotoInfoDto;
+import ru.telros.practicum.dto.user_service.UserChangeDto;
 import ru.telros.practicum.dto.user_service.UserContactsDto;
 import ru.telros.practicum.dto.user_service.UserDetailsDto;
 import ru.telros.practicum.dto.user_service.UserDto;
+import ru.telros.practicum.dto.user_service.UserSuggestionDto;
+import ru.telros.practicum.entity.PhotoMetadata;
+import ru.telros.practicum.entity.PhotoVariantMetadata;
 import ru.telros.practicum.entity.User;
+import ru.telros.practicum.entity.UserChange;
+import ru.telros.practicum.repository.UserSummary;
 
 @Mapper(componentModel = "spring")
 public interface UserMapper {
     UserDto toDto(User user);
-    @Mapping(target = "photo", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    UserDto toDto(UserSummary userSummary);
+
+    UserSuggestionDto toSuggestion(User user);
+    @Mapping(target = "version", ignore = true)
     User toEntity(UserDto userDto);
+    UserChangeDto toDto(UserChange userChange);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateUserDetailsFromDto(UserDetailsDto userDetailsDto, @MappingTarget User user);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateUserContactsFromDto(UserContactsDto userContactsDto, @MappingTarget User user);
+
+    @Mapping(target = "variant", ignore = true)
+    PhotoInfoDto toPhotoInfoDto(PhotoMetadata photoMetadata);
+
+    @Mapping(source = "size", target = "variant")
+    @Mapping(source = "byteSize", target = "size")
+    @Mapping(source = "createdAt", target = "uploadedAt")
+    PhotoInfoDto toPhotoInfoDto(PhotoVariantMetadata photoVariantMetadata);
 }
@@ -0,0 +1,44 @@
+package ru.telros.practicum.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.telros.practicum.entity.OutboxMessage;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, UUID> {
+    /**
+     * Блокирует до {@code limit} записей, срок доставки которых наступил, в порядке этого срока.
+     * Записи, заблокированные другим экземпляром сервиса, пропускаются ({@code SKIP LOCKED}),
+     * поэтому экземпляры разбирают очередь параллельно, не доставляя одну запись дважды.
+     * Вызывается внутри короткой транзакции захвата, блокировки снимаются при её завершении.
+     */
+    @Query(value = """
+            SELECT * FROM outbox_messages
+            WHERE next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    List<OutboxMessage> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Откладывает следующую попытку доставки записи. Если запись уже удалена, ничего не делает.
+     */
+    @Modifying
+    @Query("""
+            UPDATE OutboxMessage m
+            SET m.attempts = :attempts, m.lastError = :lastError, m.nextAttemptAt = :nextAttemptAt
+            WHERE m.id = :id""")
+    int reschedule(@Param("id") UUID id, @Param("attempts") int attempts, @Param("lastError") String lastError,
+                   @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    /**
+     * Время создания самой старой недоставленной записи или {@code null}, если очередь пуста.
+     */
+    @Query("SELECT min(m.createdAt) FROM OutboxMessage m")
+    Instant findOldestCreatedAt();
+}
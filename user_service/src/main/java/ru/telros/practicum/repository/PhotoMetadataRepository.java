@@ -0,0 +1,9 @@
+package ru.telros.practicum.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.telros.practicum.entity.PhotoMetadata;
+
+import java.util.UUID;
+
+public interface PhotoMetadataRepository extends JpaRepository<PhotoMetadata, UUID> {
+}
@@ -0,0 +1,16 @@
+package ru.telros.practicum.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.telros.practicum.entity.PhotoVariantId;
+import ru.telros.practicum.entity.PhotoVariantMetadata;
+
+import java.util.UUID;
+
+public interface PhotoVariantMetadataRepository extends JpaRepository<PhotoVariantMetadata, PhotoVariantId> {
+    @Modifying
+    @Query("DELETE FROM PhotoVariantMetadata v WHERE v.userId = :userId")
+    void deleteAllByUserId(@Param("userId") UUID userId);
+}
@@ -0,0 +1,118 @@
+package ru.telros.practicum.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.telros.practicum.entity.OutboxMessage;
+import ru.telros.practicum.entity.OutboxMessageType;
+import ru.telros.practicum.id.UuidV7;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Доступ к таблице outbox_messages через R2DBC для реактивного профиля.
+ * Схема таблицы создаётся JPA-сущностью {@link OutboxMessage}, поэтому запросы пишутся явно.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReactiveOutboxRepository {
+    private static final String CLAIM_SQL = """
+            UPDATE outbox_messages SET next_attempt_at = :leaseUntil
+            WHERE id IN (SELECT id FROM outbox_messages
+                         WHERE next_attempt_at <= :now
+                         ORDER BY next_attempt_at
+                         LIMIT :limit
+                         FOR UPDATE SKIP LOCKED)
+            RETURNING id, type, aggregate_id, created_at, next_attempt_at, attempts
+            """;
+
+    DatabaseClient databaseClient;
+
+    /**
+     * Сохраняет запись; вызывается в транзакции изменения, которое её вызвало.
+     */
+    public Mono<Void> insert(OutboxMessage message) {
+        if (message.getId() == null) {
+            message.setId(UuidV7.generate());
+        }
+        return databaseClient.sql("INSERT INTO outbox_messages (id, type, aggregate_id, created_at, next_attempt_at, "
+                        + "attempts) VALUES (:id, :type, :aggregateId, :createdAt, :nextAttemptAt, :attempts)")
+                .bind("id", message.getId())
+                .bind("type", message.getType().name())
+                .bind("aggregateId", message.getAggregateId())
+                .bind("createdAt", message.getCreatedAt())
+                .bind("nextAttemptAt", message.getNextAttemptAt())
+                .bind("attempts", message.getAttempts())
+                .then();
+    }
+
+    /**
+     * Захватывает до {@code limit} записей, срок доставки которых наступил, одним запросом:
+     * срок захваченных записей сдвигается на {@code leaseUntil}, поэтому другие экземпляры их не берут.
+     * Записи, заблокированные другим экземпляром, пропускаются ({@code SKIP LOCKED}).
+     */
+    public Flux<OutboxMessage> claimDue(Instant now, Instant leaseUntil, int limit) {
+        return databaseClient.sql(CLAIM_SQL)
+                .bind("now", now)
+                .bind("leaseUntil", leaseUntil)
+                .bind("limit", limit)
+                .map(ReactiveOutboxRepository::toOutboxMessage)
+                .all();
+    }
+
+    /**
+     * Откладывает следующую попытку доставки записи. Если запись уже удалена, ничего не делает.
+     */
+    public Mono<Void> reschedule(UUID id, int attempts, String lastError, Instant nextAttemptAt) {
+        return databaseClient.sql("UPDATE outbox_messages SET attempts = :attempts, last_error = :lastError, "
+                        + "next_attempt_at = :nextAttemptAt WHERE id = :id")
+                .bind("id", id)
+                .bind("attempts", attempts)
+                .bind("lastError", lastError)
+                .bind("nextAttemptAt", nextAttemptAt)
+                .then();
+    }
+
+    public Mono<Void> deleteById(UUID id) {
+        return databaseClient.sql("DELETE FROM outbox_messages WHERE id = :id")
+                .bind("id", id)
+                .then();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT count(*) AS pending FROM outbox_messages")
+                .map(row -> row.get("pending", Long.class))
+                .one();
+    }
+
+    /**
+     * Время создания самой старой недоставленной записи или пустой {@link Mono}, если очередь пуста.
+     */
+    public Mono<Instant> findOldestCreatedAt() {
+        return databaseClient.sql("SELECT min(created_at) AS oldest FROM outbox_messages")
+                .map(row -> Optional.ofNullable(row.get("oldest", Instant.class)))
+                .one()
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    private static OutboxMessage toOutboxMessage(Readable row) {
+        return OutboxMessage.builder()
+                .id(row.get("id", UUID.class))
+                .type(OutboxMessageType.valueOf(row.get("type", String.class)))
+                .aggregateId(row.get("aggregate_id", UUID.class))
+                .createdAt(row.get("created_at", Instant.class))
+                .nextAttemptAt(row.get("next_attempt_at", Instant.class))
+                .attempts(row.get("attempts", Integer.class))
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package ru.telros.practicum.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import ru.telros.practicum.entity.PhotoMetadata;
+import ru.telros.practicum.entity.PhotoVariantMetadata;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Доступ к метаданным фотографий и их вариантов через R2DBC для реактивного профиля.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReactivePhotoMetadataRepository {
+    private static final String UPSERT_SQL = """
+            INSERT INTO user_photo_metadata (user_id, size, content_type, sha256, uploaded_at)
+            VALUES (:userId, :size, :contentType, :sha256, :uploadedAt)
+            ON CONFLICT (user_id) DO UPDATE SET size = EXCLUDED.size, content_type = EXCLUDED.content_type,
+                sha256 = EXCLUDED.sha256, uploaded_at = EXCLUDED.uploaded_at
+            """;
+
+    DatabaseClient databaseClient;
+
+    public Mono<PhotoMetadata> findById(UUID userId) {
+        return databaseClient.sql("SELECT user_id, size, content_type, sha256, uploaded_at "
+                        + "FROM user_photo_metadata WHERE user_id = :userId")
+                .bind("userId", userId)
+                .map(ReactivePhotoMetadataRepository::toPhotoMetadata)
+                .one();
+    }
+
+    public Mono<PhotoVariantMetadata> findVariant(UUID userId, int size) {
+        return databaseClient.sql("SELECT user_id, size, byte_size, content_type, sha256, source_sha256, created_at "
+                        + "FROM user_photo_variant_metadata WHERE user_id = :userId AND size = :size")
+                .bind("userId", userId)
+                .bind("size", size)
+                .map(ReactivePhotoMetadataRepository::toVariantMetadata)
+                .one();
+    }
+
+    public Mono<Void> save(PhotoMetadata metadata) {
+        return databaseClient.sql(UPSERT_SQL)
+                .bind("userId", metadata.getUserId())
+                .bind("size", metadata.getSize())
+                .bind("contentType", metadata.getContentType())
+                .bind("sha256", metadata.getSha256())
+                .bind("uploadedAt", metadata.getUploadedAt())
+                .then();
+    }
+
+    /**
+     * Удаляет метаданные фотографии пользователя и всех её вариантов.
+     */
+    public Mono<Void> deleteAllByUserId(UUID userId) {
+        return databaseClient.sql("DELETE FROM user_photo_variant_metadata WHERE user_id = :userId")
+                .bind("userId", userId)
+                .then()
+                .then(databaseClient.sql("DELETE FROM user_photo_metadata WHERE user_id = :userId")
+                        .bind("userId", userId)
+                        .then());
+    }
+
+    private static PhotoMetadata toPhotoMetadata(Readable row) {
+        return PhotoMetadata.builder()
+                .userId(row.get("user_id", UUID.class))
+                .size(row.get("size", Long.class))
+                .contentType(row.get("content_type", String.class))
+                .sha256(row.get("sha256", String.class))
+                .uploadedAt(row.get("uploaded_at", Instant.class))
+                .build();
+    }
+
+    private static PhotoVariantMetadata toVariantMetadata(Readable row) {
+        return PhotoVariantMetadata.builder()
+                .userId(row.get("user_id", UUID.class))
+                .size(row.get("size", Integer.class))
+                .byteSize(row.get("byte_size", Long.class))
+                .contentType(row.get("content_type", String.class))
+                .sha256(row.get("sha256", String.class))
+                .sourceSha256(row.get("source_sha256", String.class))
+                .createdAt(row.get("created_at", Instant.class))
+                .build();
+    }
+}
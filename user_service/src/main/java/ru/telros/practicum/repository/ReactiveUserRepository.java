@@ -0,0 +1,132 @@
+package ru.telros.practicum.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import ru.telros.practicum.entity.User;
+import ru.telros.practicum.id.UuidV7;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Доступ к таблице users через R2DBC для реактивного профиля.
+ * Схема таблицы создаётся JPA-сущностью {@link User}, поэтому запросы пишутся явно.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReactiveUserRepository {
+    private static final String COLUMNS = "id, account_id, last_name, first_name, birth_date, email, phone, version";
+
+    DatabaseClient databaseClient;
+
+    public Mono<User> findById(UUID id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM users WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    /**
+     * Ищет профиль с проверкой владельца одним запросом по первичному ключу.
+     */
+    public Mono<User> findByIdAndAccountId(UUID id, UUID accountId) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM users WHERE id = :id AND account_id = :accountId")
+                .bind("id", id)
+                .bind("accountId", accountId)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    public Mono<Boolean> existsByIdAndAccountId(UUID id, UUID accountId) {
+        return databaseClient.sql("SELECT 1 FROM users WHERE id = :id AND account_id = :accountId")
+                .bind("id", id)
+                .bind("accountId", accountId)
+                .map(row -> Boolean.TRUE)
+                .one()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    public Mono<Boolean> existsById(UUID id) {
+        return databaseClient.sql("SELECT 1 FROM users WHERE id = :id")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE)
+                .one()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    /**
+     * Вставляет нового пользователя; идентификатор генерируется, если не задан.
+     */
+    public Mono<User> insert(User user) {
+        if (user.getId() == null) {
+            user.setId(UuidV7.generate());
+        }
+        user.setVersion(0L);
+        return bindColumns(databaseClient.sql("INSERT INTO users (" + COLUMNS + ") "
+                        + "VALUES (:id, :accountId, :lastName, :firstName, :birthDate, :email, :phone, :version)"), user)
+                .bind("version", user.getVersion())
+                .then()
+                .thenReturn(user);
+    }
+
+    /**
+     * Перезаписывает профиль, если его версия не изменилась с момента чтения, и увеличивает версию;
+     * новая версия записывается в {@code user}.
+     *
+     * @return профиль с новой версией или пустой {@link Mono}, если профиль изменён или удалён после чтения
+     */
+    public Mono<User> update(User user) {
+        return bindColumns(databaseClient.sql("UPDATE users SET account_id = :accountId, last_name = :lastName, "
+                        + "first_name = :firstName, birth_date = :birthDate, email = :email, phone = :phone, "
+                        + "version = version + 1 WHERE id = :id AND version = :version RETURNING version"), user)
+                .bind("version", user.getVersion())
+                .map(row -> row.get("version", Long.class))
+                .one()
+                .map(version -> {
+                    user.setVersion(version);
+                    return user;
+                });
+    }
+
+    public Mono<Void> deleteById(UUID id) {
+        return databaseClient.sql("DELETE FROM users WHERE id = :id")
+                .bind("id", id)
+                .then();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindColumns(DatabaseClient.GenericExecuteSpec spec, User user) {
+        spec = bindNullable(spec, "id", user.getId(), UUID.class);
+        spec = bindNullable(spec, "accountId", user.getAccountId(), UUID.class);
+        spec = bindNullable(spec, "lastName", user.getLastName(), String.class);
+        spec = bindNullable(spec, "firstName", user.getFirstName(), String.class);
+        spec = bindNullable(spec, "birthDate", user.getBirthDate(), LocalDate.class);
+        spec = bindNullable(spec, "email", user.getEmail(), String.class);
+        return bindNullable(spec, "phone", user.getPhone(), String.class);
+    }
+
+    private static <T> DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                      String name, T value, Class<T> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static User toUser(Readable row) {
+        return User.builder()
+                .id(row.get("id", UUID.class))
+                .accountId(row.get("account_id", UUID.class))
+                .lastName(row.get("last_name", String.class))
+                .firstName(row.get("first_name", String.class))
+                .birthDate(row.get("birth_date", LocalDate.class))
+                .email(row.get("email", String.class))
+                .phone(row.get("phone", String.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package ru.telros.practicum.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import ru.telros.practicum.service.UserImportRow;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Массовые операции с таблицей users в обход JPA: пакетная вставка и потоковое чтение курсором.
+ */
+@Repository
+@Profile("!reactive")
+public class UserBulkRepository {
+    private static final String INSERT_SQL = "INSERT INTO users "
+            + "(id, account_id, last_name, first_name, birth_date, email, phone) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // ключи совпадают с UserChangeLog.fields; jsonb_strip_nulls убирает незаполненные поля
+    private static final String INSERT_CREATED_CHANGES_SQL = """
+            INSERT INTO user_changes (user_id, account_id, type, changes, changed_at)
+            SELECT id, account_id, 'CREATED', jsonb_strip_nulls(jsonb_build_object(
+                'lastName', last_name, 'firstName', first_name, 'birthDate', birth_date,
+                'email', email, 'phone', phone)), ?
+            FROM users WHERE id = ANY(?) ORDER BY id""";
+    // блокировки берутся в порядке ключей, чтобы параллельные импорты не ждали друг друга по кругу
+    private static final String LOCK_CHANGE_LOG_SQL = """
+            SELECT pg_advisory_xact_lock(lock_key)
+            FROM (SELECT DISTINCT hashtextextended(CAST(account_id AS text), 0) AS lock_key
+                  FROM unnest(?) AS account_id ORDER BY lock_key) AS keys""";
+    private static final String SELECT_SQL = "SELECT id, account_id, last_name, first_name, birth_date, email, phone "
+            + "FROM users";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserBulkRepository(DataSource dataSource,
+                              @Value("${bulk.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Вставляет профили одним JDBC-пакетом. С {@code reWriteBatchedInserts=true} в URL драйвер Postgres
+     * переписывает пакет в многострочные INSERT.
+     */
+    public void insertAll(List<UUID> ids, List<UserImportRow> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bind(ps, ids.get(i), rows.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    public void insert(UUID id, UserImportRow row) {
+        jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, id, row));
+    }
+
+    /**
+     * Блокирует журнал изменений аккаунтов до конца текущей транзакции. Вызывается перед вставкой записей журнала:
+     * следующая транзакция получает номер записи только после фиксации предыдущей, поэтому номера записей
+     * аккаунта становятся видны читателям по возрастанию.
+     */
+    public void lockChangeLog(Collection<UUID> accountIds) {
+        jdbcTemplate.query(LOCK_CHANGE_LOG_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", accountIds.toArray())),
+                (RowCallbackHandler) rs -> { });
+    }
+
+    /**
+     * Записывает в журнал изменений создание профилей {@code ids} одним INSERT ... SELECT;
+     * значения полей берутся из уже вставленных строк users.
+     */
+    public void insertCreatedChanges(List<UUID> ids, Instant changedAt) {
+        jdbcTemplate.update(INSERT_CREATED_CHANGES_SQL, ps -> {
+            ps.setObject(1, changedAt.atOffset(ZoneOffset.UTC));
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid", ids.toArray()));
+        });
+    }
+
+    /**
+     * Передаёт профили в {@code consumer} по одному, упорядоченно по id.
+     * <p>
+     * Вызывать внутри транзакции: только тогда драйвер Postgres читает результат серверным курсором
+     * порциями {@code bulk.export.fetch-size} строк, а не загружает его в память целиком.
+     *
+     * @param accountId аккаунт, профили которого нужны, или {@code null} для всех профилей
+     */
+    public void forEach(UUID accountId, Consumer<UserSummary> consumer) {
+        RowCallbackHandler handler = rs -> consumer.accept(new UserSummary(
+                rs.getObject("id", UUID.class),
+                rs.getObject("account_id", UUID.class),
+                rs.getString("last_name"),
+                rs.getString("first_name"),
+                rs.getObject("birth_date", LocalDate.class),
+                rs.getString("email"),
+                rs.getString("phone")));
+        if (accountId == null) {
+            jdbcTemplate.query(SELECT_SQL + " ORDER BY id", handler);
+        } else {
+            jdbcTemplate.query(SELECT_SQL + " WHERE account_id = ? ORDER BY id", handler, accountId);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, UUID id, UserImportRow row) throws SQLException {
+        ps.setObject(1, id);
+        ps.setObject(2, row.accountId());
+        ps.setString(3, row.lastName());
+        ps.setString(4, row.firstName());
+        ps.setDate(5, row.birthDate() == null ? null : Date.valueOf(row.birthDate()));
+        ps.setString(6, row.email());
+        ps.setString(7, row.phone());
+    }
+}
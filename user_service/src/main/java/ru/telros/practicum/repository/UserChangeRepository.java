@@ -0,0 +1,15 @@
+package ru.telros.practicum.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.telros.practicum.entity.UserChange;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+    /**
+     * Изменения профилей аккаунта с номером больше {@code since} по возрастанию номера.
+     */
+    List<UserChange> findByAccountIdAndIdGreaterThanOrderByIdAsc(UUID accountId, long since, Limit limit);
+}
@@ -1,9 +1,94 @@
 package ru.telros.practicum.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import ru.telros.practicum.entity.User;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserSearchRepository {
+    /**
+     * Выражение, по которому построен триграммный GiST-индекс idx_users_account_search_trgm (schema.sql).
+     * Запрос должен использовать его дословно, иначе индекс не применяется.
+     */
+    String SEARCH_TEXT = "(lower(last_name) || ' ' || lower(first_name) || ' ' || lower(coalesce(email, '')))";
+
+    String SEARCH_SQL = "SELECT * FROM users"
+            + " WHERE account_id = :accountId AND lower(:query) <% " + SEARCH_TEXT
+            + " ORDER BY lower(:query) <<-> " + SEARCH_TEXT
+            + " LIMIT :limit";
+
+    /**
+     * Нечёткий поиск по фамилии, имени и электронной почте среди профилей аккаунта для подсказок при вводе.
+     * <p>
+     * Совпадением считается профиль, в тексте которого есть фрагмент, похожий на запрос по триграммам
+     * (оператор {@code <%} расширения pg_trgm, порог {@code pg_trgm.word_similarity_threshold}).
+     * Профили упорядочены по убыванию похожести; первые {@code limit} строк индекс GiST отдаёт
+     * KNN-обходом, без сортировки всех совпадений; account_id — первая колонка того же индекса.
+     */
+    @Query(value = SEARCH_SQL, nativeQuery = true)
+    List<User> searchByText(@Param("query") String query, @Param("accountId") UUID accountId,
+                            @Param("limit") int limit);
+
+    /**
+     * Ищет профиль с проверкой владельца одним запросом по первичному ключу.
+     *
+     * @return профиль или пустой {@link Optional}, если профиль не найден или принадлежит другому аккаунту
+     */
+    Optional<User> findByIdAndAccountId(UUID id, UUID accountId);
+
+    boolean existsByIdAndAccountId(UUID id, UUID accountId);
+
+    /**
+     * Обновляет имя, фамилию и дату рождения одним запросом; {@code null} оставляет значение без изменений.
+     * Профиль обновляется, только если принадлежит {@code accountId} и, когда заданы {@code expectedVersions},
+     * имеет одну из этих версий; версия профиля увеличивается.
+     *
+     * @return обновлённый профиль или пустой {@link Optional}, если профиль не найден,
+     * принадлежит другому аккаунту или изменён после чтения клиентом
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE users SET
+                last_name = COALESCE(CAST(:lastName AS varchar), last_name),
+                first_name = COALESCE(CAST(:firstName AS varchar), first_name),
+                birth_date = COALESCE(CAST(:birthDate AS date), birth_date),
+                version = version + 1
+            WHERE id = :id AND account_id = :accountId
+                AND (CAST(:expectedVersions AS bigint[]) IS NULL OR version = ANY(CAST(:expectedVersions AS bigint[])))
+            RETURNING *""", nativeQuery = true)
+    Optional<User> updateDetails(@Param("id") UUID id,
+                                 @Param("accountId") UUID accountId,
+                                 @Param("lastName") String lastName,
+                                 @Param("firstName") String firstName,
+                                 @Param("birthDate") LocalDate birthDate,
+                                 @Param("expectedVersions") Long[] expectedVersions);
+
+    /**
+     * Обновляет электронную почту и телефон одним запросом; {@code null} оставляет значение без изменений.
+     * Профиль обновляется, только если принадлежит {@code accountId} и, когда заданы {@code expectedVersions},
+     * имеет одну из этих версий; версия профиля увеличивается.
+     *
+     * @return обновлённый профиль или пустой {@link Optional}, если профиль не найден,
+     * принадлежит другому аккаунту или изменён после чтения клиентом
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE users SET
+                email = COALESCE(CAST(:email AS varchar), email),
+                phone = COALESCE(CAST(:phone AS varchar), phone),
+                version = version + 1
+            WHERE id = :id AND account_id = :accountId
+                AND (CAST(:expectedVersions AS bigint[]) IS NULL OR version = ANY(CAST(:expectedVersions AS bigint[])))
+            RETURNING *""", nativeQuery = true)
+    Optional<User> updateContacts(@Param("id") UUID id,
+                                  @Param("accountId") UUID accountId,
+                                  @Param("email") String email,
+                                  @Param("phone") String phone,
+                                  @Param("expectedVersions") Long[] expectedVersions);
 }
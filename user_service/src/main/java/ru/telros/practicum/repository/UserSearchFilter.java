@@ -0,0 +1,10 @@
+package ru.telros.practicum.repository;
+
+import java.util.UUID;
+
+/**
+ * Условия поиска профилей; {@code null} означает, что условие не применяется.
+ * Фамилия сравнивается точно, электронная почта — без учёта регистра.
+ */
+public record UserSearchFilter(UUID accountId, String lastName, String email) {
+}
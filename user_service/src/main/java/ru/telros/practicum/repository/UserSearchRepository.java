@@ -0,0 +1,17 @@
+package ru.telros.practicum.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface UserSearchRepository {
+    /**
+     * Возвращает страницу профилей, упорядоченных по id, методом keyset-пагинации:
+     * вместо OFFSET страница начинается сразу после {@code after}, поэтому стоимость запроса
+     * не растёт с номером страницы.
+     *
+     * @param filter условия поиска
+     * @param after  id последнего профиля предыдущей страницы или {@code null} для первой страницы
+     * @param limit  максимальное число профилей
+     */
+    List<UserSummary> search(UserSearchFilter filter, UUID after, int limit);
+}
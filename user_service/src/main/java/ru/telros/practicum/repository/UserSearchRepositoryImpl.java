@@ -0,0 +1,59 @@
+package ru.telros.practicum.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import ru.telros.practicum.entity.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Условия добавляются в запрос только когда заданы, чтобы планировщик Postgres использовал
+ * индексы (account_id, id), (last_name, id) и lower(email), а не обобщённый план с {@code :param IS NULL}.
+ */
+class UserSearchRepositoryImpl implements UserSearchRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserSummary> search(UserSearchFilter filter, UUID after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserSummary> query = cb.createQuery(UserSummary.class);
+        Root<User> user = query.from(User.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.accountId() != null) {
+            predicates.add(cb.equal(user.get("accountId"), filter.accountId()));
+        }
+        if (filter.lastName() != null) {
+            predicates.add(cb.equal(user.get("lastName"), filter.lastName()));
+        }
+        if (filter.email() != null) {
+            predicates.add(cb.equal(cb.lower(user.get("email")), filter.email().toLowerCase(Locale.ROOT)));
+        }
+        if (after != null) {
+            predicates.add(cb.greaterThan(user.get("id"), after));
+        }
+
+        query.select(cb.construct(UserSummary.class,
+                        user.get("id"),
+                        user.get("accountId"),
+                        user.get("lastName"),
+                        user.get("firstName"),
+                        user.get("birthDate"),
+                        user.get("email"),
+                        user.get("phone")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(user.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,16 @@
+package ru.telros.practicum.repository;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Проекция профиля для списков: только перечисленные столбцы таблицы users, без данных фотографии.
+ */
+public record UserSummary(UUID id,
+                          UUID accountId,
+                          String lastName,
+                          String firstName,
+                          LocalDate birthDate,
+                          String email,
+                          String phone) {
+}
@@ -0,0 +1,84 @@
+package ru.telros.practicum.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Проверяет внутренний заголовок {@value #HEADER}, который gateway добавляет после проверки JWT.
+ * <p>
+ * Формат значения: {@code <accountId>.<exp в секундах>.<HMAC-SHA256 в base64url>}.
+ * Проверка HMAC короткой строки дешевле полного разбора JWS. Если {@code internal-auth.secret} не задан,
+ * заголовок игнорируется и сервис проверяет только JWT.
+ */
+@Component
+@Slf4j
+public class InternalAuthVerifier {
+    public static final String HEADER = "X-Internal-Auth";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final Mac prototype;
+
+    public InternalAuthVerifier(@Value("${internal-auth.secret:}") String secret) throws GeneralSecurityException {
+        if (secret.isBlank()) {
+            this.prototype = null;
+        } else {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(Base64.getDecoder().decode(secret), ALGORITHM));
+        }
+    }
+
+    /**
+     * Проверяет подпись и срок действия заголовка.
+     *
+     * @param header значение заголовка {@value #HEADER}
+     * @return accountId или пустой {@link Optional}, если заголовок отсутствует, подделан или истёк
+     */
+    public Optional<UUID> verify(String header) {
+        if (prototype == null || header == null) {
+            return Optional.empty();
+        }
+        int signatureStart = header.lastIndexOf('.');
+        int expStart = header.lastIndexOf('.', signatureStart - 1);
+        if (expStart <= 0) {
+            log.warn("Некорректный формат заголовка {}", HEADER);
+            return Optional.empty();
+        }
+        try {
+            String payload = header.substring(0, signatureStart);
+            byte[] signature = Base64.getUrlDecoder().decode(header.substring(signatureStart + 1));
+            byte[] expected = newMac().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, signature)) {
+                log.warn("Подпись заголовка {} недействительна", HEADER);
+                return Optional.empty();
+            }
+            long exp = Long.parseLong(header.substring(expStart + 1, signatureStart));
+            if (Instant.now().getEpochSecond() >= exp) {
+                return Optional.empty();
+            }
+            return Optional.of(UUID.fromString(header.substring(0, expStart)));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Некорректный заголовок {}: {}", HEADER, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // Mac не потокобезопасен, поэтому на каждый вызов используется копия заранее инициализированного экземпляра
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
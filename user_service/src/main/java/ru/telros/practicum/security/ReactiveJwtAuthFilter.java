@@ -0,0 +1,60 @@
+package ru.telros.practicum.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Реактивный вариант {@link UserServiceJwtAuthFilter}.
+ * Не объявлен как {@code @Component}, чтобы WebFlux не зарегистрировал его повторно вне цепочки безопасности.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveJwtAuthFilter implements WebFilter {
+    private final UserServiceJwtProvider jwtProvider;
+    private final InternalAuthVerifier internalAuthVerifier;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+
+        // Быстрый путь: JWT уже проверен на gateway, доверяем подписанному внутреннему заголовку
+        Optional<UUID> trusted = internalAuthVerifier.verify(headers.getFirst(InternalAuthVerifier.HEADER));
+        if (trusted.isPresent()) {
+            log.debug("accountId {} получен из внутреннего заголовка gateway", trusted.get());
+            return authenticate(trusted.get(), exchange, chain);
+        }
+
+        String header = headers.getFirst(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        Optional<ValidatedToken> validated = jwtProvider.validate(header.substring(7));
+        if (validated.isEmpty()) {
+            log.warn("Невалидный JWT токен");
+            return chain.filter(exchange);
+        }
+
+        UUID accountId = validated.get().accountId();
+        log.debug("Токен валиден, accountId: {}", accountId);
+        return authenticate(accountId, exchange, chain);
+    }
+
+    private Mono<Void> authenticate(UUID accountId, ServerWebExchange exchange, WebFilterChain chain) {
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(accountId, null, Collections.emptyList());
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authToken));
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,13 +15,16 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.UUID;
 
 @Component
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceJwtAuthFilter extends OncePerRequestFilter {
     private final UserServiceJwtProvider jwtProvider;
+    private final InternalAuthVerifier internalAuthVerifier;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -28,6 +32,15 @@ public class UserServiceJwtAuthFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
+        // Быстрый путь: JWT уже проверен на gateway, доверяем подписанному внутреннему заголовку
+        Optional<UUID> trusted = internalAuthVerifier.verify(request.getHeader(InternalAuthVerifier.HEADER));
+        if (trusted.isPresent()) {
+            log.debug("accountId {} получен из внутреннего заголовка gateway", trusted.get());
+            authenticate(trusted.get(), request);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         String header = request.getHeader("Authorization");
         if (header == null || !header.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -35,22 +48,26 @@ public class UserServiceJwtAuthFilter extends OncePerRequestFilter {
         }
 
         String token = header.substring(7);
-        if (!jwtProvider.validateToken(token)) {
+        Optional<ValidatedToken> validated = jwtProvider.validate(token);
+        if (validated.isEmpty()) {
             log.warn("Невалидный JWT токен");
             filterChain.doFilter(request, response);
             return;
         }
 
-        UUID accountId = jwtProvider.getAccountIdFromToken(token);
+        UUID accountId = validated.get().accountId();
         log.debug("Токен валиден, accountId: {}", accountId);
+        authenticate(accountId, request);
 
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(UUID accountId, HttpServletRequest request) {
         // Кладём accountId в SecurityContext как principal
         UsernamePasswordAuthenticationToken authToken =
                 new UsernamePasswordAuthenticationToken(accountId, null, Collections.emptyList());
 
         authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(authToken);
-
-        filterChain.doFilter(request, response);
     }
 }
@@ -1,48 +1,107 @@
 package ru.telros.practicum.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Проверяет JWT токены, выпущенные auth-service.
+ * <p>
+ * Ключ подписи и парсер создаются один раз при старте; {@link JwtParser} потокобезопасен.
+ * Успешно проверенные токены кэшируются по SHA-256 хэшу до истечения их срока действия,
+ * поэтому повторные запросы с тем же токеном не выполняют разбор и проверку HMAC подписи.
+ */
 @Component
 @Slf4j
 public class UserServiceJwtProvider {
+    public static final String CACHE_NAME = "verifiedTokens";
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final JwtParser parser;
+    private final Cache<String, ValidatedToken> verifiedTokens;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public UserServiceJwtProvider(@Value("${jwt.secret}") String secret,
+                                  @Value("${jwt.verified-cache.max-size:10000}") long maxSize,
+                                  MeterRegistry meterRegistry) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, CACHE_NAME);
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Проверяет подпись и срок действия токена за один разбор.
+     *
+     * @param token JWT токен без префикса {@code Bearer}
+     * @return данные токена или пустой {@link Optional}, если токен невалиден
+     */
+    public Optional<ValidatedToken> validate(String token) {
+        String key = hash(token);
+        ValidatedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return Optional.of(cached);
+        }
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            ValidatedToken validated = new ValidatedToken(
+                    UUID.fromString(claims.get("accountId", String.class)),
+                    claims.getSubject(),
+                    claims.getExpiration().toInstant());
+            verifiedTokens.put(key, validated);
+            return Optional.of(validated);
+        } catch (JwtException | IllegalArgumentException | NullPointerException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
         }
-        return false;
+        return Optional.empty();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
     }
-    public UUID getAccountIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        String accountIdStr = claims.get("accountId", String.class);
-        return UUID.fromString(accountIdStr);
+
+    private static class UntilTokenExpiry implements Expiry<String, ValidatedToken> {
+        @Override
+        public long expireAfterCreate(String key, ValidatedToken token, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ValidatedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, ValidatedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,14 @@
+package ru.telros.practicum.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Данные JWT токена, прошедшего проверку подписи и срока действия.
+ *
+ * @param accountId идентификатор аккаунта из claim {@code accountId}
+ * @param subject   логин аккаунта
+ * @param expiresAt момент истечения срока действия токена
+ */
+public record ValidatedToken(UUID accountId, String subject, Instant expiresAt) {
+}
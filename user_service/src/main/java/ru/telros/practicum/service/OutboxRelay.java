@@ -0,0 +1,186 @@
+package ru.telros.practicum.service;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.telros.practicum.cache.AccountExistenceCache;
+import ru.telros.practicum.entity.OutboxMessage;
+import ru.telros.practicum.feign.AuthServiceClient;
+import ru.telros.practicum.repository.OutboxMessageRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Фоновая доставка записей {@link OutboxMessage} в другие сервисы.
+ * <p>
+ * Раз в {@code outbox.relay.interval} очередь разбирается пакетами по {@code outbox.relay.batch-size} записей.
+ * Пакет захватывается короткой транзакцией: записи блокируются и получают аренду — срок следующей попытки
+ * сдвигается на {@code outbox.relay.lease}, поэтому другие экземпляры их не берут. Доставка выполняется
+ * вне транзакции, соединение с базой на время вызовов auth-service не удерживается. Доставленная запись
+ * удаляется отдельной короткой транзакцией; при ошибке следующая попытка откладывается с экспоненциально
+ * растущей паузой от {@code outbox.relay.backoff} до {@code outbox.relay.max-backoff}. Если экземпляр
+ * остановился посреди пакета, запись доставляется повторно после окончания аренды; получатель отбрасывает
+ * повтор по ключу идемпотентности. Попытки не ограничены: о зависших записях сигнализируют метрики.
+ * <p>
+ * Метрики: {@code outbox.messages.pending} — размер очереди, {@code outbox.lag} — возраст самой старой записи,
+ * {@code outbox.relay.delivered} и {@code outbox.relay.failed} с тегом {@code type}.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class OutboxRelay {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxMessageRepository outboxRepository;
+    private final AuthServiceClient authServiceClient;
+    private final AccountExistenceCache accountCache;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration interval;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxMessageRepository outboxRepository,
+                       AuthServiceClient authServiceClient,
+                       AccountExistenceCache accountCache,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.interval:PT1S}") Duration interval,
+                       @Value("${outbox.relay.batch-size:50}") int batchSize,
+                       @Value("${outbox.relay.lease:PT5M}") Duration lease,
+                       @Value("${outbox.relay.backoff:PT1S}") Duration backoff,
+                       @Value("${outbox.relay.max-backoff:PT5M}") Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.authServiceClient = authServiceClient;
+        this.accountCache = accountCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("outbox.messages.pending", pending, AtomicLong::get)
+                .register(meterRegistry);
+        TimeGauge.builder("outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::drain, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Доставляет все записи, срок которых наступил, и обновляет метрики очереди.
+     * Вызывается планировщиком; ошибки логируются и не прерывают следующие запуски.
+     */
+    public void drain() {
+        try {
+            List<OutboxMessage> batch;
+            do {
+                batch = transactionTemplate.execute(status -> claimBatch());
+                batch.forEach(this::relay);
+            } while (batch.size() == batchSize);
+            pending.set(outboxRepository.count());
+            Instant oldest = outboxRepository.findOldestCreatedAt();
+            lagMillis.set(oldest == null ? 0 : Duration.between(oldest, Instant.now()).toMillis());
+        } catch (RuntimeException ex) {
+            log.error("Ошибка разбора очереди outbox: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Блокирует пакет записей, срок которых наступил, и продлевает их срок на время аренды.
+     * Изменения фиксируются при завершении транзакции, после чего блокировки снимаются.
+     */
+    private List<OutboxMessage> claimBatch() {
+        Instant now = Instant.now();
+        List<OutboxMessage> batch = outboxRepository.lockDue(now, batchSize);
+        batch.forEach(message -> message.setNextAttemptAt(now.plus(lease)));
+        return batch;
+    }
+
+    private void relay(OutboxMessage message) {
+        try {
+            deliver(message);
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteById(message.getId()));
+            meterRegistry.counter("outbox.relay.delivered", "type", message.getType().name()).increment();
+        } catch (RuntimeException ex) {
+            scheduleRetry(message, ex);
+            meterRegistry.counter("outbox.relay.failed", "type", message.getType().name()).increment();
+        }
+    }
+
+    private void deliver(OutboxMessage message) {
+        switch (message.getType()) {
+            case ACCOUNT_DELETION -> deleteAccount(message);
+        }
+    }
+
+    private void deleteAccount(OutboxMessage message) {
+        try {
+            authServiceClient.deleteAccount(message.getAggregateId(), message.getId());
+            log.info("Аккаунт {} удалён в auth-service", message.getAggregateId());
+        } catch (FeignException.NotFound ex) {
+            log.info("Аккаунт {} уже удалён в auth-service", message.getAggregateId());
+        }
+        accountCache.invalidate(message.getAggregateId());
+    }
+
+    private void scheduleRetry(OutboxMessage message, RuntimeException ex) {
+        int attempts = message.getAttempts() + 1;
+        Duration delay = retryDelay(attempts, backoff, maxBackoff);
+        String error = lastError(ex);
+        message.setAttempts(attempts);
+        message.setLastError(error);
+        message.setNextAttemptAt(Instant.now().plus(delay));
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.reschedule(
+                message.getId(), message.getAttempts(), message.getLastError(), message.getNextAttemptAt()));
+        log.warn("Попытка {} доставки {} для {} не удалась, следующая через {}: {}",
+                attempts, message.getType(), message.getAggregateId(), delay, error);
+    }
+
+    /**
+     * Пауза перед попыткой {@code attempts + 1}: удваивается после каждой неудачи, но не больше {@code maxBackoff}.
+     */
+    static Duration retryDelay(int attempts, Duration backoff, Duration maxBackoff) {
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    static String lastError(Throwable ex) {
+        String error = String.valueOf(ex.getMessage());
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.telros.practicum.service;
+
+import java.util.UUID;
+
+/**
+ * Публикуется после сохранения новой фотографии пользователя.
+ *
+ * @param userId идентификатор пользователя
+ * @param sha256 хэш загруженной фотографии
+ * @param size   размер фотографии в байтах
+ */
+public record PhotoUploadedEvent(UUID userId, String sha256, long size) {
+}
@@ -0,0 +1,164 @@
+package ru.telros.practicum.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.telros.practicum.config.PhotoStorageProperties;
+import ru.telros.practicum.entity.PhotoMetadata;
+import ru.telros.practicum.entity.PhotoVariantMetadata;
+import ru.telros.practicum.repository.PhotoMetadataRepository;
+import ru.telros.practicum.repository.PhotoVariantMetadataRepository;
+import ru.telros.practicum.storage.ImageResizer;
+import ru.telros.practicum.storage.PhotoStorage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Асинхронно строит уменьшенные варианты загруженных фотографий.
+ * <p>
+ * Работа выполняется на выделенном пуле фиксированного размера с ограниченной очередью.
+ * При переполнении очереди задача отклоняется: потоки обработки запросов никогда не масштабируют
+ * изображения сами, а до появления вариантов клиенту отдаётся оригинал.
+ * Генерация для одного пользователя сериализуется, а перед записью проверяется,
+ * что исходная фотография не была заменена.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class PhotoVariantGenerator {
+    private static final int LOCK_STRIPES = 64;
+
+    private final PhotoStorage photoStorage;
+    private final PhotoMetadataRepository photoMetadataRepository;
+    private final PhotoVariantMetadataRepository photoVariantMetadataRepository;
+    private final PhotoStorageProperties.Variants properties;
+    private final ThreadPoolExecutor executor;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Timer generationTimer;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+
+    public PhotoVariantGenerator(PhotoStorage photoStorage,
+                                 PhotoMetadataRepository photoMetadataRepository,
+                                 PhotoVariantMetadataRepository photoVariantMetadataRepository,
+                                 PhotoStorageProperties photoStorageProperties,
+                                 MeterRegistry meterRegistry) {
+        this.photoStorage = photoStorage;
+        this.photoMetadataRepository = photoMetadataRepository;
+        this.photoVariantMetadataRepository = photoVariantMetadataRepository;
+        this.properties = photoStorageProperties.getVariants();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "photo-variant-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "photoVariants");
+        this.generationTimer = meterRegistry.timer("photo.variants.generation");
+        this.rejectedCounter = meterRegistry.counter("photo.variants.rejected");
+        this.failedCounter = meterRegistry.counter("photo.variants.failed");
+    }
+
+    /**
+     * Ставит генерацию вариантов в очередь после фиксации транзакции загрузки фотографии.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPhotoUploaded(PhotoUploadedEvent event) {
+        if (properties.getSizes().isEmpty()) {
+            return;
+        }
+        try {
+            executor.execute(() -> generationTimer.record(() -> generate(event)));
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            log.warn("Очередь генерации вариантов переполнена, варианты для пользователя {} не построены",
+                    event.userId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void generate(PhotoUploadedEvent event) {
+        UUID userId = event.userId();
+        synchronized (locks[Math.floorMod(userId.hashCode(), LOCK_STRIPES)]) {
+            if (!isCurrent(event)) {
+                log.debug("Фотография пользователя {} заменена, генерация вариантов пропущена", userId);
+                return;
+            }
+            try {
+                ByteArrayOutputStream original = new ByteArrayOutputStream((int) event.size());
+                if (!photoStorage.copyTo(userId, original, 0, event.size())) {
+                    return;
+                }
+                Map<Integer, byte[]> variants = ImageResizer.resize(
+                        new ByteArrayInputStream(original.toByteArray()),
+                        properties.getSizes(), properties.getQuality(), properties.getMaxSourcePixels());
+                for (Map.Entry<Integer, byte[]> variant : variants.entrySet()) {
+                    save(event, variant.getKey(), variant.getValue());
+                }
+                log.info("Построены варианты {} фотографии пользователя {}", variants.keySet(), userId);
+            } catch (IOException | RuntimeException ex) {
+                failedCounter.increment();
+                log.warn("Не удалось построить варианты фотографии пользователя {}: {}", userId, ex.getMessage());
+            }
+        }
+    }
+
+    private boolean isCurrent(PhotoUploadedEvent event) {
+        return photoMetadataRepository.findById(event.userId())
+                .map(PhotoMetadata::getSha256)
+                .filter(event.sha256()::equals)
+                .isPresent();
+    }
+
+    private void save(PhotoUploadedEvent event, int size, byte[] data) {
+        photoStorage.saveVariant(event.userId(), size, new ByteArrayInputStream(data));
+        photoVariantMetadataRepository.save(PhotoVariantMetadata.builder()
+                .userId(event.userId())
+                .size(size)
+                .byteSize(data.length)
+                .contentType(ImageResizer.CONTENT_TYPE)
+                .sha256(sha256(data))
+                .sourceSha256(event.sha256())
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
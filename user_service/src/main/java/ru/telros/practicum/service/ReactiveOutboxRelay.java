@@ -0,0 +1,149 @@
+package ru.telros.practicum.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.telros.practicum.cache.ReactiveAccountExistenceCache;
+import ru.telros.practicum.client.ReactiveAuthServiceClient;
+import ru.telros.practicum.entity.OutboxMessage;
+import ru.telros.practicum.repository.ReactiveOutboxRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Фоновая доставка записей {@link OutboxMessage} для реактивного профиля.
+ * <p>
+ * Повторяет {@link OutboxRelay} с теми же настройками {@code outbox.relay.*} и метриками. Пакет захватывается
+ * одним запросом {@code UPDATE ... RETURNING}, который сдвигает срок записей на время аренды; доставка,
+ * удаление доставленной записи и перенос следующей попытки выполняются отдельными запросами без транзакции.
+ */
+@Component
+@Profile("reactive")
+@Slf4j
+public class ReactiveOutboxRelay {
+    private final ReactiveOutboxRepository outboxRepository;
+    private final ReactiveAuthServiceClient authServiceClient;
+    private final ReactiveAccountExistenceCache accountCache;
+    private final MeterRegistry meterRegistry;
+    private final Duration interval;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private Disposable subscription;
+
+    public ReactiveOutboxRelay(ReactiveOutboxRepository outboxRepository,
+                               ReactiveAuthServiceClient authServiceClient,
+                               ReactiveAccountExistenceCache accountCache,
+                               MeterRegistry meterRegistry,
+                               @Value("${outbox.relay.interval:PT1S}") Duration interval,
+                               @Value("${outbox.relay.batch-size:50}") int batchSize,
+                               @Value("${outbox.relay.lease:PT5M}") Duration lease,
+                               @Value("${outbox.relay.backoff:PT1S}") Duration backoff,
+                               @Value("${outbox.relay.max-backoff:PT5M}") Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.authServiceClient = authServiceClient;
+        this.accountCache = accountCache;
+        this.meterRegistry = meterRegistry;
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        Gauge.builder("outbox.messages.pending", pending, AtomicLong::get)
+                .register(meterRegistry);
+        TimeGauge.builder("outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        // следующий разбор начинается не раньше, чем закончился предыдущий
+        subscription = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> drain(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Доставляет все записи, срок которых наступил, и обновляет метрики очереди.
+     * Ошибки логируются и не прерывают следующие запуски.
+     */
+    public Mono<Void> drain() {
+        return relayBatch()
+                .expand(claimed -> claimed == batchSize ? relayBatch() : Mono.empty())
+                .then(outboxRepository.count())
+                .doOnNext(pending::set)
+                .then(outboxRepository.findOldestCreatedAt()
+                        .map(oldest -> Duration.between(oldest, Instant.now()).toMillis())
+                        .defaultIfEmpty(0L))
+                .doOnNext(lagMillis::set)
+                .then()
+                .onErrorResume(ex -> {
+                    log.error("Ошибка разбора очереди outbox: {}", ex.getMessage(), ex);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Integer> relayBatch() {
+        Instant now = Instant.now();
+        return outboxRepository.claimDue(now, now.plus(lease), batchSize)
+                .concatMap(this::relay)
+                .count()
+                .map(Long::intValue);
+    }
+
+    private Mono<OutboxMessage> relay(OutboxMessage message) {
+        return deliver(message)
+                .then(Mono.defer(() -> outboxRepository.deleteById(message.getId())))
+                .doOnSuccess(ignored ->
+                        meterRegistry.counter("outbox.relay.delivered", "type", message.getType().name()).increment())
+                .onErrorResume(ex -> scheduleRetry(message, ex)
+                        .doOnSuccess(ignored ->
+                                meterRegistry.counter("outbox.relay.failed", "type", message.getType().name()).increment()))
+                .thenReturn(message);
+    }
+
+    private Mono<Void> deliver(OutboxMessage message) {
+        return switch (message.getType()) {
+            case ACCOUNT_DELETION -> authServiceClient.deleteAccount(message.getAggregateId(), message.getId())
+                    .doOnSuccess(ignored -> {
+                        log.info("Аккаунт {} удалён в auth-service", message.getAggregateId());
+                        accountCache.invalidate(message.getAggregateId());
+                    });
+        };
+    }
+
+    private Mono<Void> scheduleRetry(OutboxMessage message, Throwable ex) {
+        int attempts = message.getAttempts() + 1;
+        Duration delay = OutboxRelay.retryDelay(attempts, backoff, maxBackoff);
+        String error = OutboxRelay.lastError(ex);
+        message.setAttempts(attempts);
+        message.setLastError(error);
+        message.setNextAttemptAt(Instant.now().plus(delay));
+        log.warn("Попытка {} доставки {} для {} не удалась, следующая через {}: {}",
+                attempts, message.getType(), message.getAggregateId(), delay, error);
+        return outboxRepository.reschedule(message.getId(), attempts, error, message.getNextAttemptAt());
+    }
+}
@@ -0,0 +1,23 @@
+package ru.telros.practicum.service;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.telros.practicum.dto.user_service.PhotoInfoDto;
+import ru.telros.practicum.dto.user_service.UserContactsDto;
+import ru.telros.practicum.dto.user_service.UserDetailsDto;
+import ru.telros.practicum.dto.user_service.UserDto;
+
+import java.util.UUID;
+
+public interface ReactiveUserService {
+    Mono<Void> uploadPhoto(UUID userId, UUID accountId, Flux<DataBuffer> content, String contentType);
+    Mono<UserDto> getUserById(UUID userId, UUID accountId);
+    Mono<UserDto> createUser(UserDto userDto, UUID accountId);
+    Mono<Void> deleteUserById(UUID userId, UUID accountId);
+    Mono<UserDto> updateUserDetails(UUID userId, UserDetailsDto userDetailsDto, UUID accountId);
+    Mono<UserDto> updateUserContacts(UUID userId, UserContactsDto userContactsDto, UUID accountId);
+    Mono<PhotoInfoDto> getPhotoInfo(UUID userId, UUID accountId, Integer size);
+    Flux<DataBuffer> readPhoto(UUID userId, Integer variant, long offset, long length);
+    Mono<Void> deletePhoto(UUID userId, UUID accountId);
+}
@@ -0,0 +1,292 @@
+package ru.telros.practicum.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.telros.practicum.cache.ReactiveAccountExistenceCache;
+import ru.telros.practicum.config.PhotoStorageProperties;
+import ru.telros.practicum.dto.user_service.PhotoInfoDto;
+import ru.telros.practicum.dto.user_service.UserContactsDto;
+import ru.telros.practicum.dto.user_service.UserDetailsDto;
+import ru.telros.practicum.dto.user_service.UserDto;
+import ru.telros.practicum.entity.OutboxMessage;
+import ru.telros.practicum.entity.OutboxMessageType;
+import ru.telros.practicum.entity.PhotoMetadata;
+import ru.telros.practicum.entity.User;
+import ru.telros.practicum.exception.AccountNotFoundException;
+import ru.telros.practicum.exception.PhotoTooLargeException;
+import ru.telros.practicum.exception.PreconditionFailedException;
+import ru.telros.practicum.exception.UserNotFoundException;
+import ru.telros.practicum.mapper.UserMapper;
+import ru.telros.practicum.repository.ReactiveOutboxRepository;
+import ru.telros.practicum.repository.ReactivePhotoMetadataRepository;
+import ru.telros.practicum.repository.ReactiveUserRepository;
+import ru.telros.practicum.storage.PhotoInputStream;
+import ru.telros.practicum.storage.ReactivePhotoStorage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Реактивная реализация сервиса профилей пользователей (профиль {@code reactive}).
+ * <p>
+ * Повторяет поведение {@link UserServiceImpl}, но работает через R2DBC и неблокирующий клиент auth-service.
+ * Уменьшенные варианты фотографий в этом профиле не строятся: после новой загрузки ранее построенные
+ * варианты перестают совпадать по хэшу оригинала, и запрос с размером получает оригинал.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+    ReactiveUserRepository userRepository;
+    ReactivePhotoMetadataRepository photoMetadataRepository;
+    ReactivePhotoStorage photoStorage;
+    ReactiveAccountExistenceCache accountCache;
+    ReactiveOutboxRepository outboxRepository;
+    PhotoStorageProperties photoStorageProperties;
+    UserMapper mapper;
+
+    /**
+     * Загружает или обновляет фотографию пользователя.
+     *
+     * Содержимое накапливается в памяти не более {@code photo-storage.max-size} байт,
+     * при превышении выбрасывается {@link PhotoTooLargeException}.
+     *
+     * @throws UserNotFoundException если пользователь не найден или принадлежит другому аккаунту
+     */
+    @Override
+    @Transactional
+    public Mono<Void> uploadPhoto(UUID userId, UUID accountId, Flux<DataBuffer> content, String contentType) {
+        log.info("Загрузка фотографии для пользователя с id {}", userId);
+        long maxSize = photoStorageProperties.getMaxSize().toBytes();
+        return checkUserOwned(userId, accountId)
+                .then(DataBufferUtils.join(content, Math.toIntExact(maxSize)))
+                .onErrorMap(DataBufferLimitException.class, ex -> new PhotoTooLargeException(maxSize))
+                .map(ReactiveUserServiceImpl::toBytes)
+                .flatMap(data -> {
+                    PhotoInputStream photo = inspect(data, maxSize);
+                    PhotoMetadata metadata = PhotoMetadata.builder()
+                            .userId(userId)
+                            .size(photo.getSize())
+                            .contentType(UserServiceImpl.resolveContentType(photo.getDetectedContentType(), contentType))
+                            .sha256(photo.getSha256())
+                            .uploadedAt(Instant.now())
+                            .build();
+                    log.info("Сохранение метаданных фотографии {}", metadata);
+                    return photoStorage.save(userId, data)
+                            .then(photoMetadataRepository.save(metadata));
+                });
+    }
+
+    /**
+     * Возвращает сведения о фотографии пользователя без чтения её содержимого.
+     *
+     * Аккаунт из проверенного токена считается существующим, auth-service не вызывается.
+     *
+     * @return сведения о фотографии или пустой {@link Mono}, если фотография отсутствует
+     * @throws UserNotFoundException если пользователь не найден или принадлежит другому аккаунту
+     */
+    @Override
+    public Mono<PhotoInfoDto> getPhotoInfo(UUID userId, UUID accountId, Integer size) {
+        log.info("Поиск фотографии размера {} для пользователя с id {}", size, userId);
+        return checkUserOwned(userId, accountId)
+                .then(photoMetadataRepository.findById(userId))
+                .flatMap(photo -> {
+                    Mono<PhotoInfoDto> original = Mono.fromSupplier(() -> mapper.toPhotoInfoDto(photo));
+                    if (size == null) {
+                        return original;
+                    }
+                    return photoStorageProperties.getVariants().getSizes().stream()
+                            .filter(variantSize -> variantSize >= size)
+                            .min(Integer::compare)
+                            .map(variantSize -> photoMetadataRepository.findVariant(userId, variantSize)
+                                    .filter(v -> v.getSourceSha256().equals(photo.getSha256()))
+                                    .map(mapper::toPhotoInfoDto)
+                                    .switchIfEmpty(original))
+                            .orElse(original);
+                });
+    }
+
+    @Override
+    public Flux<DataBuffer> readPhoto(UUID userId, Integer variant, long offset, long length) {
+        return photoStorage.read(userId, variant, offset, length);
+    }
+
+    /**
+     * Удаляет фотографию пользователя, её уменьшенные варианты и их метаданные.
+     *
+     * @throws AccountNotFoundException если аккаунт не существует
+     * @throws UserNotFoundException если пользователь не найден или принадлежит другому аккаунту
+     */
+    @Override
+    @Transactional
+    public Mono<Void> deletePhoto(UUID userId, UUID accountId) {
+        log.info("Удаление фотографии для пользователя с id {}", userId);
+        return checkAccount(accountId)
+                .then(checkUserOwned(userId, accountId))
+                .then(removePhoto(userId));
+    }
+
+    /**
+     * Создаёт новый профиль пользователя и связывает его с существующим аккаунтом.
+     *
+     * @throws AccountNotFoundException если аккаунт с указанным идентификатором не найден
+     */
+    @Override
+    public Mono<UserDto> createUser(UserDto userDto, UUID accountId) {
+        log.info("Создание нового профиля пользователя для accountId {}", accountId);
+        return checkAccount(accountId)
+                .then(Mono.fromSupplier(() -> {
+                    User user = mapper.toEntity(userDto);
+                    user.setId(null);
+                    user.setAccountId(accountId);
+                    return user;
+                }))
+                .flatMap(userRepository::insert)
+                .doOnNext(user -> log.info("Пользователь создан {}", user))
+                .map(mapper::toDto);
+    }
+
+    /**
+     * Удаляет профиль пользователя, его фотографию и связанный аккаунт.
+     * Как и в {@link UserServiceImpl}, аккаунт в auth-service удаляется не синхронно: в той же транзакции,
+     * что и удаление профиля, сохраняется запись outbox, которую затем доставляет {@link ReactiveOutboxRelay}.
+     *
+     * @throws AccountNotFoundException если аккаунт не существует
+     * @throws UserNotFoundException    если пользователь не существует или принадлежит другому аккаунту
+     */
+    @Override
+    @Transactional
+    public Mono<Void> deleteUserById(UUID userId, UUID accountId) {
+        log.info("Удаление пользователя по id {}", userId);
+        return checkAccount(accountId)
+                .then(findOwnedUser(userId, accountId))
+                .flatMap(user -> removePhoto(userId)
+                        .then(userRepository.deleteById(userId))
+                        .then(Mono.defer(() -> {
+                            Instant now = Instant.now();
+                            return outboxRepository.insert(OutboxMessage.builder()
+                                    .type(OutboxMessageType.ACCOUNT_DELETION)
+                                    .aggregateId(accountId)
+                                    .createdAt(now)
+                                    .nextAttemptAt(now)
+                                    .build());
+                        })))
+                .doOnSuccess(ignored -> log.info("Пользователь удален, удаление аккаунта {} поставлено в очередь",
+                        accountId));
+    }
+
+    /**
+     * Возвращает профиль пользователя по идентификатору.
+     * Аккаунт из проверенного токена считается существующим, auth-service не вызывается.
+     *
+     * @throws UserNotFoundException если пользователь не существует или принадлежит другому аккаунту
+     */
+    @Override
+    public Mono<UserDto> getUserById(UUID userId, UUID accountId) {
+        return findOwnedUser(userId, accountId)
+                .map(mapper::toDto);
+    }
+
+    /**
+     * Обновляет имя, фамилию и дату рождения пользователя.
+     *
+     * @throws AccountNotFoundException    если аккаунт не существует
+     * @throws UserNotFoundException       если пользователь не найден или принадлежит другому аккаунту
+     * @throws PreconditionFailedException если профиль изменён параллельным запросом
+     */
+    @Override
+    public Mono<UserDto> updateUserDetails(UUID userId, UserDetailsDto userDetailsDto, UUID accountId) {
+        log.info("Обновление данных {} для пользователя с id {}", userDetailsDto, userId);
+        return checkAccount(accountId)
+                .then(findOwnedUser(userId, accountId))
+                .doOnNext(user -> mapper.updateUserDetailsFromDto(userDetailsDto, user))
+                .flatMap(this::updateIfUnchanged)
+                .map(mapper::toDto);
+    }
+
+    /**
+     * Обновляет электронную почту и номер телефона пользователя.
+     *
+     * @throws AccountNotFoundException    если аккаунт не существует
+     * @throws UserNotFoundException       если пользователь не найден или принадлежит другому аккаунту
+     * @throws PreconditionFailedException если профиль изменён параллельным запросом
+     */
+    @Override
+    public Mono<UserDto> updateUserContacts(UUID userId, UserContactsDto userContactsDto, UUID accountId) {
+        log.info("Обновление контактных данных {} для пользователя с id {}", userContactsDto, userId);
+        return checkAccount(accountId)
+                .then(findOwnedUser(userId, accountId))
+                .doOnNext(user -> mapper.updateUserContactsFromDto(userContactsDto, user))
+                .flatMap(this::updateIfUnchanged)
+                .map(mapper::toDto);
+    }
+
+    private Mono<User> updateIfUnchanged(User user) {
+        return userRepository.update(user)
+                .switchIfEmpty(Mono.error(() -> new PreconditionFailedException(
+                        "Профиль пользователя " + user.getId() + " изменён параллельным запросом")));
+    }
+
+    private Mono<Void> checkAccount(UUID accountId) {
+        return accountCache.exists(accountId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new AccountNotFoundException("Аккаунт с id не найден" + accountId)))
+                .then();
+    }
+
+    private Mono<User> findOwnedUser(UUID userId, UUID accountId) {
+        return userRepository.findByIdAndAccountId(userId, accountId)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("Пользователь не найден id" + userId)));
+    }
+
+    private Mono<Void> checkUserOwned(UUID userId, UUID accountId) {
+        return userRepository.existsByIdAndAccountId(userId, accountId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("Пользователь не найден id" + userId)))
+                .then();
+    }
+
+    private Mono<Void> removePhoto(UUID userId) {
+        return photoStorage.delete(userId)
+                .then(photoMetadataRepository.deleteAllByUserId(userId));
+    }
+
+    private static byte[] toBytes(DataBuffer buffer) {
+        try {
+            byte[] data = new byte[buffer.readableByteCount()];
+            buffer.read(data);
+            return data;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    /**
+     * Вычисляет размер, SHA-256 и тип содержимого так же, как при потоковой загрузке в {@link UserServiceImpl}.
+     */
+    private static PhotoInputStream inspect(byte[] data, long maxSize) {
+        PhotoInputStream photo = new PhotoInputStream(new ByteArrayInputStream(data), maxSize);
+        try {
+            photo.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return photo;
+    }
+}
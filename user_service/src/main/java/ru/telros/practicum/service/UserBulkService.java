@@ -0,0 +1,17 @@
+package ru.telros.practicum.service;
+
+import org.springframework.http.MediaType;
+import ru.telros.practicum.dto.user_service.BulkImportResultDto;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface UserBulkService {
+    MediaType NDJSON = MediaType.APPLICATION_NDJSON;
+    MediaType CSV = new MediaType("text", "csv");
+
+    BulkImportResultDto importUsers(InputStream data, MediaType format, UUID accountId);
+    Consumer<OutputStream> exportUsers(MediaType format, UUID filterAccountId, UUID accountId);
+}
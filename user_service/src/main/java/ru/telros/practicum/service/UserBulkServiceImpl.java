@@ -0,0 +1,345 @@
+package ru.telros.practicum.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.telros.practicum.cache.AccountExistenceCache;
+import ru.telros.practicum.dto.user_service.BulkImportResultDto;
+import ru.telros.practicum.exception.AccountNotFoundException;
+import ru.telros.practicum.exception.InvalidImportFormatException;
+import ru.telros.practicum.id.UuidV7;
+import ru.telros.practicum.repository.UserBulkRepository;
+import ru.telros.practicum.repository.UserSummary;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт и экспорт профилей в форматах NDJSON и CSV.
+ * <p>
+ * Импорт читает поток построчно и обрабатывает его порциями по {@code bulk.import.chunk-size} строк:
+ * строки проверяются по мере чтения, профили вставляются одним JDBC-пакетом в отдельной транзакции.
+ * Ошибочная строка не прерывает импорт, а попадает в отчёт. Экспорт читает таблицу курсором и пишет строки
+ * сразу в ответ. Память в обоих случаях не зависит от объёма данных.
+ * <p>
+ * Импорт и экспорт работают только с профилями аккаунта, выполняющего запрос.
+ */
+@Service
+@Profile("!reactive")
+@Slf4j
+public class UserBulkServiceImpl implements UserBulkService {
+    static final List<String> CSV_IMPORT_COLUMNS = List.of("accountId", "lastName", "firstName", "birthDate", "email", "phone");
+    static final List<String> CSV_EXPORT_COLUMNS = List.of("id", "accountId", "lastName", "firstName", "birthDate", "email", "phone");
+
+    private final UserBulkRepository bulkRepository;
+    private final UserChangeLog changeLog;
+    private final AccountExistenceCache accountCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public UserBulkServiceImpl(UserBulkRepository bulkRepository,
+                               UserChangeLog changeLog,
+                               AccountExistenceCache accountCache,
+                               ObjectMapper objectMapper,
+                               Validator validator,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${bulk.import.chunk-size:500}") int chunkSize,
+                               @Value("${bulk.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.bulkRepository = bulkRepository;
+        this.changeLog = changeLog;
+        this.accountCache = accountCache;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Импортирует профили из потока NDJSON (объект {@link UserImportRow} в строке)
+     * или CSV (первая строка — заголовок с именами колонок {@link #CSV_IMPORT_COLUMNS}).
+     * <p>
+     * Каждая порция фиксируется отдельно: при недоступности auth-service импорт прерывается,
+     * а профили из уже обработанных порций остаются сохранёнными.
+     * Создание профилей порции записывается в журнал изменений {@link UserChangeLog} в той же транзакции.
+     * Строки с профилями другого аккаунта отклоняются как ошибочные.
+     *
+     * @param data      поток с профилями в кодировке UTF-8
+     * @param format    {@link #NDJSON} или {@link #CSV}
+     * @param accountId идентификатор аккаунта, выполняющего импорт
+     * @return число импортированных и отклонённых строк с описанием ошибок
+     * @throws AccountNotFoundException      если аккаунт, выполняющий импорт, не существует
+     * @throws InvalidImportFormatException если заголовок CSV не содержит обязательных колонок
+     */
+    @Override
+    public BulkImportResultDto importUsers(InputStream data, MediaType format, UUID accountId) {
+        log.info("Массовый импорт профилей в формате {} для accountId {}", format, accountId);
+        checkAccount(accountId);
+        ImportReport report = new ImportReport(maxReportedErrors);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(data, StandardCharsets.UTF_8))) {
+            RowParser parser = CSV.isCompatibleWith(format) ? csvParser(reader.readLine()) : this::parseJson;
+            long lineNumber = CSV.isCompatibleWith(format) ? 1 : 0;
+            List<NumberedRow> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    UserImportRow row = parser.parse(line);
+                    validate(row);
+                    if (accountId.equals(row.accountId())) {
+                        chunk.add(new NumberedRow(lineNumber, row));
+                    } else {
+                        report.fail(lineNumber, "Аккаунт не найден: " + row.accountId());
+                    }
+                } catch (JsonProcessingException ex) {
+                    report.fail(lineNumber, ex.getOriginalMessage());
+                } catch (IllegalArgumentException | DateTimeParseException ex) {
+                    report.fail(lineNumber, ex.getMessage());
+                }
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            importChunk(chunk, report);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        BulkImportResultDto result = report.toDto();
+        log.info("Массовый импорт завершён: импортировано {}, отклонено {}", result.getImported(), result.getFailed());
+        return result;
+    }
+
+    /**
+     * Проверяет аккаунт и возвращает запись экспорта, которая пишет профили в поток в формате NDJSON
+     * или CSV с заголовком {@link #CSV_EXPORT_COLUMNS}. Строки читаются из базы серверным курсором
+     * и записываются по мере чтения.
+     *
+     * @param format          {@link #NDJSON} или {@link #CSV}
+     * @param filterAccountId аккаунт, профили которого экспортируются, или {@code null} для аккаунта,
+     *                        выполняющего экспорт
+     * @param accountId       идентификатор аккаунта, выполняющего экспорт
+     * @return запись экспорта в поток ответа
+     * @throws AccountNotFoundException если аккаунт, выполняющий экспорт, не существует
+     *                                  или в фильтре указан другой аккаунт
+     */
+    @Override
+    public Consumer<OutputStream> exportUsers(MediaType format, UUID filterAccountId, UUID accountId) {
+        log.info("Массовый экспорт профилей в формате {} для accountId {}", format, accountId);
+        if (filterAccountId != null && !filterAccountId.equals(accountId)) {
+            throw new AccountNotFoundException("Аккаунт с id не найден" + filterAccountId);
+        }
+        checkAccount(accountId);
+        return out -> writeExport(out, format, accountId);
+    }
+
+    private void writeExport(OutputStream out, MediaType format, UUID accountId) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            if (CSV.isCompatibleWith(format)) {
+                writer.write(String.join(",", CSV_EXPORT_COLUMNS));
+                writer.write('\n');
+                readOnlyTransactionTemplate.executeWithoutResult(status ->
+                        bulkRepository.forEach(accountId, user -> writeLine(writer, CsvRows.format(
+                                user.id(), user.accountId(), user.lastName(), user.firstName(),
+                                user.birthDate(), user.email(), user.phone()))));
+            } else {
+                SequenceWriter sequence = objectMapper.writer()
+                        .withRootValueSeparator("\n")
+                        .writeValues(writer);
+                readOnlyTransactionTemplate.executeWithoutResult(status ->
+                        bulkRepository.forEach(accountId, user -> writeJson(sequence, user)));
+                sequence.flush();
+                writer.write('\n');
+            }
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Вставляет профили порции одним пакетом.
+     * Если пакет отклонён базой, строки вставляются по одной, чтобы найти и отчитать только ошибочные.
+     */
+    private void importChunk(List<NumberedRow> accepted, ImportReport report) {
+        if (accepted.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = accepted.stream().map(numbered -> UuidV7.generate()).toList();
+        List<UserImportRow> rows = accepted.stream().map(NumberedRow::row).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                bulkRepository.insertAll(ids, rows);
+                changeLog.recordImported(ids, rows);
+            });
+            report.imported(rows.size());
+        } catch (DataAccessException ex) {
+            log.warn("Пакетная вставка {} профилей отклонена, вставка по одной: {}", rows.size(), ex.getMessage());
+            for (int i = 0; i < accepted.size(); i++) {
+                UUID id = ids.get(i);
+                NumberedRow numbered = accepted.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        bulkRepository.insert(id, numbered.row());
+                        changeLog.recordImported(List.of(id), List.of(numbered.row()));
+                    });
+                    report.imported(1);
+                } catch (DataAccessException rowEx) {
+                    report.fail(numbered.line(), rowEx.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private UserImportRow parseJson(String line) throws JsonProcessingException {
+        return objectMapper.readValue(line, UserImportRow.class);
+    }
+
+    private RowParser csvParser(String header) {
+        if (header == null) {
+            throw new InvalidImportFormatException("Пустой CSV: отсутствует строка заголовка");
+        }
+        List<String> columns = CsvRows.parse(header.strip());
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            positions.put(columns.get(i).strip(), i);
+        }
+        List<String> missing = CSV_IMPORT_COLUMNS.stream()
+                .filter(column -> !column.equals("birthDate") && !column.equals("phone"))
+                .filter(column -> !positions.containsKey(column))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new InvalidImportFormatException("В заголовке CSV нет обязательных колонок: " + missing);
+        }
+        return line -> {
+            List<String> values = CsvRows.parse(line);
+            String accountId = value(values, positions.get("accountId"));
+            String birthDate = value(values, positions.get("birthDate"));
+            return new UserImportRow(
+                    accountId == null ? null : UUID.fromString(accountId),
+                    value(values, positions.get("lastName")),
+                    value(values, positions.get("firstName")),
+                    birthDate == null ? null : LocalDate.parse(birthDate),
+                    value(values, positions.get("email")),
+                    value(values, positions.get("phone")));
+        };
+    }
+
+    private void validate(UserImportRow row) {
+        Set<ConstraintViolation<UserImportRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private void checkAccount(UUID accountId) {
+        if (!accountCache.exists(accountId)) {
+            throw new AccountNotFoundException("Аккаунт с id не найден" + accountId);
+        }
+    }
+
+    private static String value(List<String> values, Integer position) {
+        if (position == null || position >= values.size()) {
+            return null;
+        }
+        String value = values.get(position).strip();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void writeJson(SequenceWriter sequence, UserSummary user) {
+        try {
+            sequence.write(user);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        UserImportRow parse(String line) throws JsonProcessingException;
+    }
+
+    private record NumberedRow(long line, UserImportRow row) {
+    }
+
+    private static final class ImportReport {
+        private final int maxErrors;
+        private final List<BulkImportResultDto.RowError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        private ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void imported(int count) {
+            imported += count;
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(BulkImportResultDto.RowError.builder().line(line).message(message).build());
+            }
+        }
+
+        BulkImportResultDto toDto() {
+            return BulkImportResultDto.builder()
+                    .imported(imported)
+                    .failed(failed)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+    }
+}
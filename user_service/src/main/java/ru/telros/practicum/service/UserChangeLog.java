@@ -0,0 +1,124 @@
+package ru.telros.practicum.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.telros.practicum.entity.User;
+import ru.telros.practicum.entity.UserChange;
+import ru.telros.practicum.entity.UserChangeType;
+import ru.telros.practicum.event.UserChangedEvent;
+import ru.telros.practicum.event.UserEventBus;
+import ru.telros.practicum.repository.UserBulkRepository;
+import ru.telros.practicum.repository.UserChangeRepository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Журнал изменений профилей и публикация событий о них.
+ * <p>
+ * Изменение записывается в таблицу user_changes в транзакции, которая его вызвала, а в {@link UserEventBus}
+ * публикуется только после её фиксации. Журнал читается курсором по номеру записи в пределах аккаунта.
+ * Перед вставкой транзакция берёт блокировку журнала аккаунта до своей фиксации
+ * ({@link UserBulkRepository#lockChangeLog(java.util.Collection)}), поэтому номера записей одного аккаунта
+ * становятся видны в порядке возрастания: транзакция не может получить меньший номер и зафиксироваться
+ * после той, чьи записи потребитель уже прочитал.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class UserChangeLog {
+    private final UserChangeRepository changeRepository;
+    private final UserBulkRepository bulkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserEventBus eventBus;
+
+    public UserChangeLog(UserChangeRepository changeRepository,
+                         UserBulkRepository bulkRepository,
+                         ApplicationEventPublisher eventPublisher,
+                         UserEventBus eventBus) {
+        this.changeRepository = changeRepository;
+        this.bulkRepository = bulkRepository;
+        this.eventPublisher = eventPublisher;
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Записывает изменение профиля в журнал в текущей транзакции и публикует событие после её фиксации.
+     *
+     * @param changes новые значения полей, см. {@link #fields(String, String, LocalDate, String, String)}
+     */
+    public void record(UUID userId, UUID accountId, UserChangeType type, Map<String, String> changes) {
+        Instant now = Instant.now();
+        bulkRepository.lockChangeLog(List.of(accountId));
+        changeRepository.save(UserChange.builder()
+                .userId(userId)
+                .accountId(accountId)
+                .type(type)
+                .changes(changes)
+                .changedAt(now)
+                .build());
+        eventPublisher.publishEvent(new UserChangedEvent(userId, accountId, type, changes, now));
+    }
+
+    /**
+     * Записывает создание импортированных профилей одним запросом, без загрузки их в JPA.
+     * Профили должны быть уже вставлены в текущей транзакции.
+     */
+    public void recordImported(List<UUID> ids, List<UserImportRow> rows) {
+        Instant now = Instant.now();
+        bulkRepository.lockChangeLog(rows.stream().map(UserImportRow::accountId).toList());
+        bulkRepository.insertCreatedChanges(ids, now);
+        for (int i = 0; i < ids.size(); i++) {
+            UserImportRow row = rows.get(i);
+            eventPublisher.publishEvent(new UserChangedEvent(ids.get(i), row.accountId(), UserChangeType.CREATED,
+                    fields(row.lastName(), row.firstName(), row.birthDate(), row.email(), row.phone()), now));
+        }
+    }
+
+    /**
+     * Возвращает до {@code limit} изменений профилей аккаунта с номером больше {@code since} по возрастанию номера.
+     */
+    public List<UserChange> findChanges(UUID accountId, long since, int limit) {
+        return changeRepository.findByAccountIdAndIdGreaterThanOrderByIdAsc(accountId, since, Limit.of(limit));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        log.debug("Публикация события {} пользователя {}", event.type(), event.userId());
+        eventBus.publish(event);
+    }
+
+    static Map<String, String> fields(User user) {
+        return fields(user.getLastName(), user.getFirstName(), user.getBirthDate(), user.getEmail(), user.getPhone());
+    }
+
+    /**
+     * Собирает значения полей профиля в порядке объявления; поля со значением {@code null} пропускаются.
+     * Ключи совпадают с именами полей {@link ru.telros.practicum.dto.user_service.UserDto}.
+     */
+    static Map<String, String> fields(String lastName, String firstName, LocalDate birthDate,
+                                      String email, String phone) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        putIfPresent(fields, "lastName", lastName);
+        putIfPresent(fields, "firstName", firstName);
+        putIfPresent(fields, "birthDate", birthDate == null ? null : birthDate.toString());
+        putIfPresent(fields, "email", email);
+        putIfPresent(fields, "phone", phone);
+        return fields;
+    }
+
+    private static void putIfPresent(Map<String, String> fields, String name, String value) {
+        if (value != null) {
+            fields.put(name, value);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.telros.practicum.service;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Строка массового импорта профилей: профиль и аккаунт, к которому он привязывается.
+ * Ограничения совпадают с {@link ru.telros.practicum.dto.user_service.UserDto}.
+ */
+public record UserImportRow(@NotNull UUID accountId,
+                            @NotBlank @Size(min = 2, max = 254) String lastName,
+                            @NotBlank @Size(min = 2, max = 254) String firstName,
+                            LocalDate birthDate,
+                            @Email @NotBlank @Size(min = 6, max = 254) String email,
+                            @Size(min = 6, max = 100) String phone) {
+}
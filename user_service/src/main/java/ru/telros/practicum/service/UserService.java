@@ -1,18 +1,31 @@
 package ru.telros.practicum.service;
 
+import ru.telros.practicum.dto.user_service.PhotoInfoDto;
+import ru.telros.practicum.dto.user_service.UserChangePageDto;
 import ru.telros.practicum.dto.user_service.UserContactsDto;
 import ru.telros.practicum.dto.user_service.UserDetailsDto;
 import ru.telros.practicum.dto.user_service.UserDto;
+import ru.telros.practicum.dto.user_service.UserPageDto;
+import ru.telros.practicum.dto.user_service.UserSuggestionDto;
+import ru.telros.practicum.repository.UserSearchFilter;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public interface UserService {
-    void uploadPhoto(UUID userId, byte[] photoBytes);
+    void uploadPhoto(UUID userId, UUID accountId, InputStream data, String contentType);
     UserDto getUserById(UUID userId, UUID accountId);
+    UserPageDto findUsers(UserSearchFilter filter, UUID after, int limit, UUID accountId);
+    List<UserSuggestionDto> searchUsers(String query, int limit, UUID accountId);
+    UserChangePageDto getChanges(long since, int limit, UUID accountId);
     UserDto createUser(UserDto userDto,UUID accountId);
-    void deleteUserById(UUID userId, UUID accountId);
-    UserDto updateUserDetails(UUID userId, UserDetailsDto userDetailsDto, UUID accountId);
-    UserDto updateUserContacts(UUID userId, UserContactsDto userContactsDto, UUID accountId);
-    byte[] getPhoto(UUID userId, UUID accountId);
+    void deleteUserById(UUID userId, UUID accountId, Set<Long> expectedVersions);
+    UserDto updateUserDetails(UUID userId, UserDetailsDto userDetailsDto, UUID accountId, Set<Long> expectedVersions);
+    UserDto updateUserContacts(UUID userId, UserContactsDto userContactsDto, UUID accountId, Set<Long> expectedVersions);
+    PhotoInfoDto getPhotoInfo(UUID userId, UUID accountId, Integer size);
+    boolean writePhoto(UUID userId, Integer variant, OutputStream out, long offset, long length);
     void deletePhoto(UUID userId, UUID accountId);
 }
@@ -1,75 +1,173 @@
 package ru.telros.practicum.service;
 
-import feign.FeignException;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.telros.practicum.cache.AccountExistenceCache;
+import ru.telros.practicum.cache.UserProfileCache;
+import ru.telros.practicum.config.PhotoStorageProperties;
+import ru.telros.practicum.dto.user_service.PhotoInfoDto;
+import ru.telros.practicum.dto.user_service.UserChangePageDto;
 import ru.telros.practicum.dto.user_service.UserContactsDto;
 import ru.telros.practicum.dto.user_service.UserDetailsDto;
 import ru.telros.practicum.dto.user_service.UserDto;
+import ru.telros.practicum.dto.user_service.UserPageDto;
+import ru.telros.practicum.dto.user_service.UserSuggestionDto;
+import ru.telros.practicum.entity.OutboxMessage;
+import ru.telros.practicum.entity.OutboxMessageType;
+import ru.telros.practicum.entity.PhotoMetadata;
+import ru.telros.practicum.entity.PhotoVariantId;
+import ru.telros.practicum.entity.PhotoVariantMetadata;
 import ru.telros.practicum.entity.User;
+import ru.telros.practicum.entity.UserChange;
+import ru.telros.practicum.entity.UserChangeType;
 import ru.telros.practicum.exception.AccountNotFoundException;
+import ru.telros.practicum.exception.PhotoTooLargeException;
+import ru.telros.practicum.exception.PreconditionFailedException;
 import ru.telros.practicum.exception.UserNotFoundException;
-import ru.telros.practicum.exception.ValidationException;
-import ru.telros.practicum.feign.AuthServiceClient;
 import ru.telros.practicum.mapper.UserMapper;
+import ru.telros.practicum.repository.OutboxMessageRepository;
+import ru.telros.practicum.repository.PhotoMetadataRepository;
+import ru.telros.practicum.repository.PhotoVariantMetadataRepository;
 import ru.telros.practicum.repository.UserRepository;
+import ru.telros.practicum.repository.UserSearchFilter;
+import ru.telros.practicum.repository.UserSummary;
+import ru.telros.practicum.storage.PhotoInputStream;
+import ru.telros.practicum.storage.PhotoStorage;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class UserServiceImpl implements UserService {
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_SEARCH_RESULTS = 50;
+    static final int MAX_CHANGES_PAGE_SIZE = 1000;
+
     UserRepository userRepository;
     UserMapper mapper;
-    AuthServiceClient authServiceClient;
+    AccountExistenceCache accountCache;
+    PhotoStorage photoStorage;
+    PhotoMetadataRepository photoMetadataRepository;
+    PhotoStorageProperties photoStorageProperties;
+    PhotoVariantMetadataRepository photoVariantMetadataRepository;
+    ApplicationEventPublisher eventPublisher;
+    UserProfileCache userCache;
+    OutboxMessageRepository outboxRepository;
+    UserChangeLog changeLog;
 
     /**
      * Загружает или обновляет фотографию пользователя.
      *
+     * Содержимое фотографии потоком передаётся в {@link PhotoStorage}, отдельно от профиля пользователя.
+     * Размер и SHA-256 хэш вычисляются по мере чтения потока; превышение {@code photo-storage.max-size}
+     * прерывает загрузку. Тип содержимого определяется по сигнатуре изображения, а заявленный клиентом
+     * тип используется, только если формат не распознан. Метаданные сохраняются в отдельную таблицу.
      * Если фотография уже была загружена ранее, она будет перезаписана новыми данными.
+     * После фиксации транзакции уменьшенные варианты строятся асинхронно {@link PhotoVariantGenerator}.
      *
      * @param userId идентификатор пользователя
-     * @param photoBytes массив байтов фотографии
+     * @param accountId идентификатор аккаунта, которому принадлежит пользователь
+     * @param data поток с содержимым фотографии
+     * @param contentType тип содержимого, заявленный клиентом
      *
-     * @throws UserNotFoundException если пользователь не найден
+     * @throws UserNotFoundException если пользователь не найден или принадлежит другому аккаунту
+     * @throws PhotoTooLargeException если размер фотографии превышает допустимый
      */
-    public void uploadPhoto(UUID userId, byte[] photoBytes) {
+    @Transactional
+    public void uploadPhoto(UUID userId, UUID accountId, InputStream data, String contentType) {
         log.info("Загрузка фотографии для пользователя с id {}", userId);
-        User user = findUserById(userId);
-        user.setPhoto(photoBytes);
-        log.info("Сохранение пользователя с фотографией");
-        userRepository.save(user);
-
+        checkUserOwned(userId, accountId);
+        PhotoInputStream photo = new PhotoInputStream(data, photoStorageProperties.getMaxSize().toBytes());
+        photoStorage.save(userId, photo);
+        PhotoMetadata metadata = PhotoMetadata.builder()
+                .userId(userId)
+                .size(photo.getSize())
+                .contentType(resolveContentType(photo.getDetectedContentType(), contentType))
+                .sha256(photo.getSha256())
+                .uploadedAt(Instant.now())
+                .build();
+        log.info("Сохранение метаданных фотографии {}", metadata);
+        photoMetadataRepository.save(metadata);
+        userCache.invalidate(userId);
+        eventPublisher.publishEvent(new PhotoUploadedEvent(userId, metadata.getSha256(), metadata.getSize()));
     }
     /**
-     * Возвращает фотографию пользователя в виде массива байтов.
+     * Возвращает сведения о фотографии пользователя без чтения её содержимого.
      *
-     * Перед получением выполняется проверка существования аккаунта,
-     * а также проверка принадлежности пользователя к указанному аккаунту.
+     * Аккаунт из проверенного токена считается существующим, поэтому auth-service не вызывается;
+     * принадлежность пользователя аккаунту проверяется одним запросом к базе данных.
+     * Содержимое затем передаётся методом {@link #writePhoto(UUID, Integer, OutputStream, long, long)}.
+     *
+     * Если запрошен размер, выбирается наименьший настроенный вариант не меньше запрошенного.
+     * Если такого варианта нет или он ещё не построен для текущей фотографии, возвращается оригинал.
      *
      * @param userId идентификатор пользователя
      * @param accountId идентификатор аккаунта, которому принадлежит пользователь
-     * @return массив байтов фотографии или {@code null}, если фотография отсутствует
+     * @param size желаемый размер по наибольшей стороне в пикселях или {@code null} для оригинала
+     * @return сведения о фотографии или {@code null}, если фотография отсутствует
      *
-     * @throws AccountNotFoundException если аккаунт не существует
-     * @throws UserNotFoundException если пользователь не найден
+     * @throws UserNotFoundException если пользователь не найден или принадлежит другому аккаунту
      */
-    public byte[] getPhoto(UUID userId, UUID accountId) {
-        log.info("Поиск фотографии для пользователя с id {}", userId);
-        checkAccount(accountId);
-        User user = findUserById(userId);
-        return user.getPhoto();
+    public PhotoInfoDto getPhotoInfo(UUID userId, UUID accountId, Integer size) {
+        log.info("Поиск фотографии размера {} для пользователя с id {}", size, userId);
+        checkUserOwned(userId, accountId);
+        PhotoMetadata photo = photoMetadataRepository.findById(userId).orElse(null);
+        if (photo == null) {
+            return null;
+        }
+        if (size != null) {
+            Optional<PhotoVariantMetadata> variant = photoStorageProperties.getVariants().getSizes().stream()
+                    .filter(variantSize -> variantSize >= size)
+                    .min(Integer::compare)
+                    .flatMap(variantSize -> photoVariantMetadataRepository.findById(
+                            new PhotoVariantId(userId, variantSize)))
+                    .filter(v -> v.getSourceSha256().equals(photo.getSha256()));
+            if (variant.isPresent()) {
+                return mapper.toPhotoInfoDto(variant.get());
+            }
+        }
+        return mapper.toPhotoInfoDto(photo);
+    }
+
+    /**
+     * Записывает содержимое фотографии пользователя или его фрагмент в выходной поток.
+     *
+     * @param userId идентификатор пользователя
+     * @param variant размер варианта из {@link PhotoInfoDto#getVariant()} или {@code null} для оригинала
+     * @param out поток, в который копируется фотография
+     * @param offset смещение первого байта
+     * @param length количество байтов
+     * @return {@code false}, если фотография отсутствует в хранилище
+     */
+    public boolean writePhoto(UUID userId, Integer variant, OutputStream out, long offset, long length) {
+        if (variant == null) {
+            return photoStorage.copyTo(userId, out, offset, length);
+        }
+        return photoStorage.copyVariantTo(userId, variant, out, offset, length);
     }
     /**
      * Удаляет фотографию пользователя.
      *
-     * После удаления поле фотографии будет установлено в {@code null}.
+     * Удаляются содержимое фотографии, её уменьшенные варианты и их метаданные.
      * Перед удалением выполняется проверка существования аккаунта,
      * а также проверка принадлежности пользователя к указанному аккаунту.
      *
@@ -77,15 +175,15 @@ public class UserServiceImpl implements UserService {
      * @param accountId идентификатор аккаунта, которому принадлежит пользователь
      *
      * @throws AccountNotFoundException если аккаунт не существует
-     * @throws UserNotFoundException если пользователь не найден
+     * @throws UserNotFoundException если пользователь не найден или принадлежит другому аккаунту
      */
+    @Transactional
     public void deletePhoto(UUID userId, UUID accountId) {
         log.info("Удаление фотографии для пользователя с id {}", userId);
         checkAccount(accountId);
-        User user = findUserById(userId);
-        user.setPhoto(null);
-        log.info("Сохранение пользователя с фотографией");
-        userRepository.save(user);
+        checkUserOwned(userId, accountId);
+        removePhoto(userId);
+        userCache.invalidate(userId);
     }
 
     /**
@@ -93,6 +191,7 @@ public class UserServiceImpl implements UserService {
      *
      * Перед созданием выполняется проверка существования аккаунта по указанному идентификатору.
      * Если аккаунт не существует, выбрасывается исключение {@link AccountNotFoundException}.
+     * Создание записывается в журнал изменений {@link UserChangeLog}.
      *
      * @param userDto   DTO с данными нового пользователя
      * @param accountId идентификатор аккаунта, к которому привязывается пользователь
@@ -100,135 +199,293 @@ public class UserServiceImpl implements UserService {
      * @throws AccountNotFoundException если аккаунт с указанным идентификатором не найден
      */
     @Override
+    @Transactional
     public UserDto createUser(UserDto userDto, UUID accountId) {
         log.info("Создание нового профиля пользователя для accountId {}", accountId);
         checkAccount(accountId);
         User user = mapper.toEntity(userDto);
         user.setAccountId(accountId);
         User savedUser = userRepository.save(user);
+        changeLog.record(savedUser.getId(), accountId, UserChangeType.CREATED, UserChangeLog.fields(savedUser));
         log.info("Пользователь создан {}", savedUser);
         return mapper.toDto(savedUser);
     }
 
     /**
-     * Удаляет профиль пользователя и связанный аккаунт.
+     * Удаляет профиль пользователя, его фотографию и связанный аккаунт.
      *
      * Выполняет проверку существования аккаунта перед удалением.
      * Если аккаунт не найден, выбрасывается {@link AccountNotFoundException}.
-     * После удаления профиля пользователя выполняется запрос на удаление аккаунта через сервис авторизации.
+     * Удаление аккаунта в сервисе авторизации не выполняется синхронно: в той же транзакции, что и удаление
+     * профиля, сохраняется запись outbox, которую затем доставляет {@link OutboxRelay},
+     * и запись журнала изменений {@link UserChangeLog}.
      *
-     * @param userId    идентификатор пользователя
-     * @param accountId идентификатор аккаунта
-     * @throws AccountNotFoundException если аккаунт не существует
-     * @throws UserNotFoundException    если пользователь не существует
-     * @throws FeignException           если удаление аккаунта завершилось с ошибкой
+     * Если заданы {@code expectedVersions}, профиль удаляется только в одной из этих версий. Изменение профиля
+     * между чтением и удалением обнаруживает Hibernate по столбцу version и выбрасывает
+     * {@link org.springframework.orm.ObjectOptimisticLockingFailureException}.
+     *
+     * @param userId           идентификатор пользователя
+     * @param accountId        идентификатор аккаунта
+     * @param expectedVersions версии профиля, допустимые для клиента,
+     *                         или {@code null} для безусловного удаления
+     * @throws AccountNotFoundException    если аккаунт не существует
+     * @throws UserNotFoundException       если пользователь не существует или принадлежит другому аккаунту
+     * @throws PreconditionFailedException если версия профиля отличается от ожидаемой
      */
     @Override
-    public void deleteUserById(UUID userId, UUID accountId) {
-        log.info("Удаление пользователя по id {}", userId);
+    @Transactional
+    public void deleteUserById(UUID userId, UUID accountId, Set<Long> expectedVersions) {
+        log.info("Удаление пользователя по id {} версии {}", userId, expectedVersions);
         checkAccount(accountId);
-        User user = findUserById(userId);
-        userRepository.delete(user);
-        log.info("Пользователь удален");
-        try {
-            log.info("Запрос на удаление аккаунта {}", accountId);
-            authServiceClient.deleteAccount(accountId);
-        } catch (FeignException ex) {
-            log.warn("Ошибка при удалении аккаунта {}: {}", accountId, ex.getMessage());
-            throw ex;
+        User user = findOwnedUser(userId, accountId);
+        if (expectedVersions != null && !expectedVersions.contains(user.getVersion())) {
+            throw versionMismatch(userId, expectedVersions, user.getVersion());
         }
+        removePhoto(userId);
+        userRepository.delete(user);
+        userCache.invalidate(userId);
+        Instant now = Instant.now();
+        outboxRepository.save(OutboxMessage.builder()
+                .type(OutboxMessageType.ACCOUNT_DELETION)
+                .aggregateId(accountId)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+        changeLog.record(userId, accountId, UserChangeType.DELETED, Map.of());
+        log.info("Пользователь удален, удаление аккаунта {} поставлено в очередь", accountId);
     }
 
     /**
      * Возвращает профиль пользователя по идентификатору.
      *
-     * Перед получением выполняется проверка существования аккаунта.
+     * Аккаунт из проверенного токена считается существующим, поэтому auth-service не вызывается.
+     * Профиль читается через {@link UserProfileCache}; при промахе он загружается одним запросом
+     * с условием на владельца, а у профиля из кэша владелец сверяется с {@code accountId}.
      *
      * @param userId    идентификатор пользователя
      * @param accountId идентификатор аккаунта
      * @return DTO с данными пользователя
-     * @throws AccountNotFoundException если аккаунт не существует
-     * @throws UserNotFoundException    если пользователь не существует
+     * @throws UserNotFoundException если пользователь не существует или принадлежит другому аккаунту
      */
     @Override
     public UserDto getUserById(UUID userId, UUID accountId) {
-        checkAccount(accountId);
-        return mapper.toDto(findUserById(userId));
+        UserDto user = userCache.get(userId, id -> mapper.toDto(findOwnedUser(id, accountId)));
+        if (!accountId.equals(user.getAccountId())) {
+            throw userNotFound(userId);
+        }
+        return user;
+    }
+
+    /**
+     * Возвращает страницу профилей, удовлетворяющих условиям поиска, упорядоченных по id.
+     *
+     * Используется keyset-пагинация: следующая страница запрашивается с {@code after},
+     * равным {@link UserPageDto#getNextCursor()} предыдущей. Размер страницы ограничен {@value #MAX_PAGE_SIZE}.
+     * Поиск всегда ограничен профилями аккаунта, выполняющего запрос.
+     *
+     * @param filter    условия поиска по аккаунту, фамилии и электронной почте
+     * @param after     id последнего профиля предыдущей страницы или {@code null} для первой страницы
+     * @param limit     желаемый размер страницы
+     * @param accountId идентификатор аккаунта, выполняющего запрос
+     * @return страница профилей и курсор следующей страницы
+     * @throws AccountNotFoundException если в фильтре указан другой аккаунт
+     */
+    @Override
+    public UserPageDto findUsers(UserSearchFilter filter, UUID after, int limit, UUID accountId) {
+        log.info("Поиск пользователей по {} после id {}", filter, after);
+        if (filter.accountId() != null && !filter.accountId().equals(accountId)) {
+            throw new AccountNotFoundException("Аккаунт с id не найден" + filter.accountId());
+        }
+        UserSearchFilter scoped = new UserSearchFilter(accountId, filter.lastName(), filter.email());
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        // на одну запись больше, чтобы узнать, есть ли следующая страница
+        List<UserSummary> found = userRepository.search(scoped, after, pageSize + 1);
+        boolean hasNext = found.size() > pageSize;
+        List<UserSummary> page = hasNext ? found.subList(0, pageSize) : found;
+        return UserPageDto.builder()
+                .users(page.stream().map(mapper::toDto).toList())
+                .nextCursor(hasNext ? page.get(pageSize - 1).id() : null)
+                .build();
+    }
+
+    /**
+     * Ищет профили по фрагменту фамилии, имени или электронной почты для подсказок при вводе.
+     *
+     * Поиск нечёткий и не зависит от регистра; опечатки в запросе допускаются.
+     * Возвращается не более {@value #MAX_SEARCH_RESULTS} наиболее похожих профилей аккаунта, выполняющего запрос.
+     *
+     * @param query     введённый текст
+     * @param limit     желаемое число подсказок
+     * @param accountId идентификатор аккаунта, выполняющего запрос
+     * @return подсказки в порядке убывания похожести; пустой список для пустого запроса
+     */
+    @Override
+    public List<UserSuggestionDto> searchUsers(String query, int limit, UUID accountId) {
+        log.info("Поиск пользователей по тексту '{}'", query);
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return userRepository.searchByText(query.strip(), accountId, Math.clamp(limit, 1, MAX_SEARCH_RESULTS)).stream()
+                .map(mapper::toSuggestion)
+                .toList();
+    }
+
+    /**
+     * Возвращает изменения профилей аккаунта после курсора {@code since} для инкрементальной синхронизации.
+     *
+     * Потребитель начинает с {@code since = 0} и передаёт в следующий запрос {@link UserChangePageDto#getNextCursor()}.
+     * Размер страницы ограничен {@value #MAX_CHANGES_PAGE_SIZE}.
+     *
+     * @param since     номер последнего полученного изменения
+     * @param limit     желаемый размер страницы
+     * @param accountId идентификатор аккаунта, выполняющего запрос
+     * @return изменения по возрастанию номера и курсор следующего запроса
+     */
+    @Override
+    public UserChangePageDto getChanges(long since, int limit, UUID accountId) {
+        log.debug("Чтение журнала изменений после {}", since);
+        int pageSize = Math.clamp(limit, 1, MAX_CHANGES_PAGE_SIZE);
+        List<UserChange> changes = changeLog.findChanges(accountId, since, pageSize);
+        return UserChangePageDto.builder()
+                .changes(changes.stream().map(mapper::toDto).toList())
+                .nextCursor(changes.isEmpty() ? since : changes.get(changes.size() - 1).getId())
+                .hasMore(changes.size() == pageSize)
+                .build();
     }
 
     /**
      * Обновляет детальную информацию профиля пользователя.
      *
-     * Перед обновлением выполняется проверка существования аккаунта и проверка,
-     * что указанный профиль пользователя действительно принадлежит этому аккаунту.
+     * Перед обновлением выполняется проверка существования аккаунта. Обновление выполняется одним
+     * запросом {@code UPDATE ... RETURNING}, условия принадлежности профиля аккаунту
+     * и совпадения версии входят в WHERE, версия профиля увеличивается.
      *
-     * Только поля, содержащиеся в {@link UserDetailsDto} (имя, фамилия, дата рождения), будут обновлены.
-     * Остальные поля профиля пользователя остаются без изменений.
+     * Только поля, содержащиеся в {@link UserDetailsDto} (имя, фамилия, дата рождения), будут обновлены;
+     * поля со значением {@code null} не изменяются. Остальные поля профиля пользователя остаются без изменений.
+     * Заданные поля записываются в журнал изменений {@link UserChangeLog}.
      *
-     * @param userId         идентификатор пользователя
-     * @param userDetailsDto DTO с новыми значениями полей профиля
-     * @param accountId      идентификатор аккаунта, которому принадлежит пользователь
+     * @param userId           идентификатор пользователя
+     * @param userDetailsDto   DTO с новыми значениями полей профиля
+     * @param accountId        идентификатор аккаунта, которому принадлежит пользователь
+     * @param expectedVersions версии профиля, допустимые для клиента,
+     *                         или {@code null} для безусловного обновления
      * @return обновлённый профиль пользователя в формате {@link UserDto}
-     * @throws AccountNotFoundException если аккаунт не существует
-     * @throws UserNotFoundException    если пользователь не найден
-     * @throws ValidationException      если профиль пользователя не принадлежит указанному аккаунту
+     * @throws AccountNotFoundException    если аккаунт не существует
+     * @throws UserNotFoundException       если пользователь не найден или принадлежит другому аккаунту
+     * @throws PreconditionFailedException если версия профиля отличается от ожидаемой
      */
-    public UserDto updateUserDetails(UUID userId, UserDetailsDto userDetailsDto, UUID accountId) {
+    @Transactional
+    public UserDto updateUserDetails(UUID userId, UserDetailsDto userDetailsDto, UUID accountId,
+                                     Set<Long> expectedVersions) {
         log.info("Обновление данных {} для пользователя с id {}", userDetailsDto, userId);
         checkAccount(accountId);
-        User user = findUserById(userId);
-        checkAccountAndUserProfile(user, accountId);
-        mapper.updateUserDetailsFromDto(userDetailsDto, user);
-        log.info("Сохранение обновленного профиля пользователя {}", user);
-        return mapper.toDto(userRepository.save(user));
+        User savedUser = userRepository.updateDetails(userId, accountId,
+                        userDetailsDto.getLastName(), userDetailsDto.getFirstName(), userDetailsDto.getBirthDate(),
+                        toArray(expectedVersions))
+                .orElseThrow(() -> updateRejected(userId, accountId, expectedVersions));
+        log.info("Профиль пользователя обновлен {}", savedUser);
+        changeLog.record(userId, accountId, UserChangeType.UPDATED, UserChangeLog.fields(userDetailsDto.getLastName(),
+                userDetailsDto.getFirstName(), userDetailsDto.getBirthDate(), null, null));
+        userCache.invalidate(userId);
+        return mapper.toDto(savedUser);
     }
 
     /**
      * Обновляет контактную информацию пользователя.
      *
-     * Перед обновлением выполняется проверка существования аккаунта и проверка,
-     * что указанный пользователь принадлежит этому аккаунту.
+     * Перед обновлением выполняется проверка существования аккаунта. Обновление выполняется одним
+     * запросом {@code UPDATE ... RETURNING}, условия принадлежности профиля аккаунту
+     * и совпадения версии входят в WHERE, версия профиля увеличивается.
      *
-     * Обновляются только поля контактной информации: электронная почта и номер телефона.
-     * Остальные данные пользователя остаются без изменений.
+     * Обновляются только поля контактной информации: электронная почта и номер телефона;
+     * поля со значением {@code null} не изменяются. Остальные данные пользователя остаются без изменений.
+     * Заданные поля записываются в журнал изменений {@link UserChangeLog}.
      *
-     * @param userId          идентификатор пользователя
-     * @param userContactsDto DTO с новыми контактными данными пользователя
-     * @param accountId       идентификатор аккаунта, которому принадлежит пользователь
+     * @param userId           идентификатор пользователя
+     * @param userContactsDto  DTO с новыми контактными данными пользователя
+     * @param accountId        идентификатор аккаунта, которому принадлежит пользователь
+     * @param expectedVersions версии профиля, допустимые для клиента,
+     *                         или {@code null} для безусловного обновления
      * @return обновлённый профиль пользователя в формате {@link UserDto}
-     * @throws AccountNotFoundException если аккаунт не существует
-     * @throws UserNotFoundException    если пользователь не найден
-     * @throws ValidationException      если профиль пользователя не принадлежит указанному аккаунту
+     * @throws AccountNotFoundException    если аккаунт не существует
+     * @throws UserNotFoundException       если пользователь не найден или принадлежит другому аккаунту
+     * @throws PreconditionFailedException если версия профиля отличается от ожидаемой
      */
-    public UserDto updateUserContacts(UUID userId, UserContactsDto userContactsDto, UUID accountId) {
+    @Transactional
+    public UserDto updateUserContacts(UUID userId, UserContactsDto userContactsDto, UUID accountId,
+                                      Set<Long> expectedVersions) {
         log.info("Обновление контактных данных {} для пользователя с id {}", userContactsDto, userId);
         checkAccount(accountId);
-        User user = findUserById(userId);
-        checkAccountAndUserProfile(user, accountId);
-        mapper.updateUserContactsFromDto(userContactsDto, user);
-        log.info("Сохранение обновленного профиля пользователя {}", user);
-        return mapper.toDto(userRepository.save(user));
+        User savedUser = userRepository.updateContacts(userId, accountId,
+                        userContactsDto.getEmail(), userContactsDto.getPhone(), toArray(expectedVersions))
+                .orElseThrow(() -> updateRejected(userId, accountId, expectedVersions));
+        log.info("Профиль пользователя обновлен {}", savedUser);
+        changeLog.record(userId, accountId, UserChangeType.UPDATED, UserChangeLog.fields(null, null, null,
+                userContactsDto.getEmail(), userContactsDto.getPhone()));
+        userCache.invalidate(userId);
+        return mapper.toDto(savedUser);
     }
 
     private void checkAccount(UUID accountId) {
-        try {
-            authServiceClient.getAccount(accountId);
-        } catch (FeignException.NotFound ex) {
+        if (!accountCache.exists(accountId)) {
             throw new AccountNotFoundException("Аккаунт с id не найден" + accountId);
         }
     }
 
-    private User findUserById(UUID userId) {
+    private User findOwnedUser(UUID userId, UUID accountId) {
         log.info("Поиск пользователя ");
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("Пользователь не найден id" + userId));
+        return userRepository.findByIdAndAccountId(userId, accountId)
+                .orElseThrow(() -> userNotFound(userId));
+    }
+
+    private void checkUserOwned(UUID userId, UUID accountId) {
+        if (!userRepository.existsByIdAndAccountId(userId, accountId)) {
+            throw userNotFound(userId);
+        }
+    }
+
+    private static UserNotFoundException userNotFound(UUID userId) {
+        return new UserNotFoundException("Пользователь не найден id" + userId);
+    }
+
+    private void removePhoto(UUID userId) {
+        photoStorage.delete(userId);
+        photoVariantMetadataRepository.deleteAllByUserId(userId);
+        if (photoMetadataRepository.existsById(userId)) {
+            photoMetadataRepository.deleteById(userId);
+        }
+    }
+
+    static String resolveContentType(String detected, String declared) {
+        if (detected != null) {
+            return detected;
+        }
+        try {
+            return MediaType.parseMediaType(declared).toString();
+        } catch (InvalidMediaTypeException ex) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
     }
 
-    private void checkAccountAndUserProfile(User user, UUID accountId) {
-        if (!user.getAccountId().equals(accountId)) {
-            throw new ValidationException(
-                    String.format("Номер аккаунта %s не совпадает с номером аккаунта записанным для пользователя %s",
-                            accountId, user));
+    /**
+     * Определяет причину, по которой целевой UPDATE не затронул ни одной строки.
+     * Дополнительный запрос выполняется только в этом, редком, случае.
+     * Чужой профиль не отличается от несуществующего, чтобы не раскрывать его наличие.
+     */
+    private RuntimeException updateRejected(UUID userId, UUID accountId, Set<Long> expectedVersions) {
+        Optional<User> user = userRepository.findById(userId);
+        if (user.isEmpty() || !accountId.equals(user.get().getAccountId())) {
+            return userNotFound(userId);
         }
+        return versionMismatch(userId, expectedVersions, user.get().getVersion());
+    }
+
+    private PreconditionFailedException versionMismatch(UUID userId, Set<Long> expectedVersions, Long actualVersion) {
+        return new PreconditionFailedException(String.format("Профиль пользователя %s изменён: ожидалась версия %s, "
+                + "текущая %s", userId, expectedVersions, actualVersion));
+    }
+
+    private static Long[] toArray(Set<Long> versions) {
+        return versions == null ? null : versions.toArray(Long[]::new);
     }
 }
@@ -0,0 +1,93 @@
+package ru.telros.practicum.storage;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * Хранит фотографии в отдельной таблице user_photos той же базы данных, а их варианты — в user_photo_variants.
+ * Запись и чтение выполняются через JDBC-потоки, минуя загрузку сущности в контекст Hibernate.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "photo-storage.type", havingValue = "db", matchIfMissing = true)
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class DatabasePhotoStorage implements PhotoStorage {
+    private static final String UPSERT_SQL = """
+            INSERT INTO user_photos (user_id, data) VALUES (?, ?)
+            ON CONFLICT (user_id) DO UPDATE SET data = EXCLUDED.data
+            """;
+    // substring выполняется на стороне PostgreSQL, поэтому по сети передаётся только запрошенный фрагмент
+    private static final String SELECT_RANGE_SQL = """
+            SELECT substring(data FROM ? FOR ?) FROM user_photos WHERE user_id = ?
+            """;
+    private static final String UPSERT_VARIANT_SQL = """
+            INSERT INTO user_photo_variants (user_id, size, data) VALUES (?, ?, ?)
+            ON CONFLICT (user_id, size) DO UPDATE SET data = EXCLUDED.data
+            """;
+    private static final String SELECT_VARIANT_RANGE_SQL = """
+            SELECT substring(data FROM ? FOR ?) FROM user_photo_variants WHERE user_id = ? AND size = ?
+            """;
+
+    JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void save(UUID userId, InputStream data) {
+        jdbcTemplate.update(UPSERT_SQL, ps -> {
+            ps.setObject(1, userId);
+            ps.setBinaryStream(2, data);
+        });
+    }
+
+    @Override
+    public boolean copyTo(UUID userId, OutputStream out, long offset, long length) {
+        return copyRange(SELECT_RANGE_SQL, out, Math.toIntExact(offset + 1), Math.toIntExact(length), userId);
+    }
+
+    @Override
+    public void saveVariant(UUID userId, int size, InputStream data) {
+        jdbcTemplate.update(UPSERT_VARIANT_SQL, ps -> {
+            ps.setObject(1, userId);
+            ps.setInt(2, size);
+            ps.setBinaryStream(3, data);
+        });
+    }
+
+    @Override
+    public boolean copyVariantTo(UUID userId, int size, OutputStream out, long offset, long length) {
+        return copyRange(SELECT_VARIANT_RANGE_SQL, out,
+                Math.toIntExact(offset + 1), Math.toIntExact(length), userId, size);
+    }
+
+    @Override
+    public void delete(UUID userId) {
+        jdbcTemplate.update("DELETE FROM user_photo_variants WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM user_photos WHERE user_id = ?", userId);
+    }
+
+    private boolean copyRange(String sql, OutputStream out, Object... args) {
+        Boolean found = jdbcTemplate.query(sql, rs -> {
+            if (!rs.next()) {
+                return false;
+            }
+            try (InputStream in = rs.getBinaryStream(1)) {
+                in.transferTo(out);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return true;
+        }, args);
+        return Boolean.TRUE.equals(found);
+    }
+}
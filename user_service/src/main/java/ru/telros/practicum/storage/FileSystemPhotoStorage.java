@@ -0,0 +1,234 @@
+package ru.telros.practicum.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Хранит фотографии в локальной файловой системе: оригинал в файле {@code <userId>},
+ * уменьшенные варианты рядом с ним в файлах {@code <userId>_<size>}.
+ * Запись выполняется во временный файл с последующим атомарным переименованием.
+ * Внутри транзакции переименование нового оригинала и удаление откладываются до её фиксации: при откате
+ * файлы остаются прежними и соответствуют метаданным (размеру, SHA-256, ETag), сохранённым в базе.
+ * Копирование выполняется через {@link FileChannel#transferFrom}/{@link FileChannel#transferTo}.
+ */
+@Component
+@ConditionalOnProperty(name = "photo-storage.type", havingValue = "fs")
+@Slf4j
+public class FileSystemPhotoStorage implements PhotoStorage {
+    private static final long TRANSFER_CHUNK = 1024 * 1024;
+    private static final String VARIANT_SEPARATOR = "_";
+
+    private final Path rootDir;
+
+    public FileSystemPhotoStorage(@Value("${photo-storage.fs.root-dir:photos}") Path rootDir) throws IOException {
+        this.rootDir = Files.createDirectories(rootDir);
+        log.info("Фотографии пользователей хранятся в каталоге {}", this.rootDir.toAbsolutePath());
+    }
+
+    @Override
+    public void save(UUID userId, InputStream data) {
+        Path staged = stage(userId, data);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(userId, staged);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                // файл должен быть на месте до обработчиков AFTER_COMMIT, которые его читают
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCommit() {
+                publishAfterCommit(userId, staged);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    deleteQuietly(staged);
+                }
+            }
+        });
+    }
+
+    /**
+     * Записывает новый оригинал во временный файл, который ещё не отдаётся при чтении.
+     */
+    Path stage(UUID userId, InputStream data) {
+        return writeTemp(resolve(userId), data);
+    }
+
+    /**
+     * Атомарно заменяет оригинал временным файлом из {@link #stage(UUID, InputStream)}.
+     */
+    void publish(UUID userId, Path staged) {
+        move(staged, resolve(userId));
+    }
+
+    /**
+     * Заменяет оригинал после фиксации транзакции. Ошибка не пробрасывается: транзакция уже зафиксирована.
+     */
+    void publishAfterCommit(UUID userId, Path staged) {
+        try {
+            publish(userId, staged);
+        } catch (UncheckedIOException ex) {
+            log.error("Не удалось заменить фотографию пользователя {}: {}", userId, ex.getMessage());
+        }
+    }
+
+    void discard(Path staged) {
+        deleteQuietly(staged);
+    }
+
+    @Override
+    public boolean copyTo(UUID userId, OutputStream out, long offset, long length) {
+        return copy(resolve(userId), out, offset, length);
+    }
+
+    @Override
+    public void saveVariant(UUID userId, int size, InputStream data) {
+        write(resolveVariant(userId, size), data);
+    }
+
+    @Override
+    public boolean copyVariantTo(UUID userId, int size, OutputStream out, long offset, long length) {
+        return copy(resolveVariant(userId, size), out, offset, length);
+    }
+
+    @Override
+    public void delete(UUID userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteFiles(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteFilesAfterCommit(userId);
+            }
+        });
+    }
+
+    /**
+     * Удаляет файлы после фиксации транзакции. Ошибка не пробрасывается: транзакция уже зафиксирована,
+     * а оставшиеся файлы без метаданных не отдаются.
+     */
+    void deleteFilesAfterCommit(UUID userId) {
+        try {
+            deleteFiles(userId);
+        } catch (UncheckedIOException ex) {
+            log.warn("Не удалось удалить файлы фотографии пользователя {}: {}", userId, ex.getMessage());
+        }
+    }
+
+    void deleteFiles(UUID userId) {
+        try (DirectoryStream<Path> variants = Files.newDirectoryStream(rootDir, userId + VARIANT_SEPARATOR + "*")) {
+            for (Path variant : variants) {
+                Files.deleteIfExists(variant);
+            }
+            Files.deleteIfExists(resolve(userId));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void write(Path file, InputStream data) {
+        move(writeTemp(file, data), file);
+    }
+
+    private Path writeTemp(Path file, InputStream data) {
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(rootDir, file.getFileName().toString(), ".tmp");
+            try (ReadableByteChannel source = Channels.newChannel(data);
+                 FileChannel target = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                long position = 0;
+                long transferred;
+                while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                    position += transferred;
+                }
+            }
+            Path written = tmp;
+            tmp = null;
+            return written;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            deleteQuietly(tmp);
+        }
+    }
+
+    private void move(Path tmp, Path file) {
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            deleteQuietly(tmp);
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private boolean copy(Path file, OutputStream out, long offset, long length) {
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long end = Math.min(offset + length, source.size());
+            long position = offset;
+            while (position < end) {
+                position += source.transferTo(position, end - position, target);
+            }
+            return true;
+        } catch (NoSuchFileException ex) {
+            return false;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Путь к файлу оригинала или варианта, читаемому {@link ReactiveFileSystemPhotoStorage}.
+     */
+    Path file(UUID userId, Integer variant) {
+        return variant == null ? resolve(userId) : resolveVariant(userId, variant);
+    }
+
+    private Path resolve(UUID userId) {
+        return rootDir.resolve(userId.toString());
+    }
+
+    private Path resolveVariant(UUID userId, int size) {
+        return rootDir.resolve(userId + VARIANT_SEPARATOR + size);
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Не удалось удалить временный файл {}: {}", file, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.telros.practicum.storage;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Строит уменьшенные JPEG-варианты изображения средствами JDK (ImageIO, Java2D).
+ * <p>
+ * Исходное изображение декодируется один раз, с прореживанием до размера, вдвое превышающего
+ * наибольший вариант. Варианты строятся от большего к меньшему, каждый из предыдущего,
+ * с последовательным уменьшением вдвое для сохранения качества билинейной интерполяции.
+ */
+public final class ImageResizer {
+    public static final String CONTENT_TYPE = "image/jpeg";
+
+    private ImageResizer() {
+    }
+
+    /**
+     * @param source    содержимое исходного изображения
+     * @param sizes     размеры вариантов по наибольшей стороне; размеры не меньше исходного пропускаются
+     * @param quality   качество JPEG-сжатия, от 0 до 1
+     * @param maxPixels максимальное число пикселей исходного изображения
+     * @return JPEG-содержимое вариантов по их размерам, от большего к меньшему
+     * @throws IOException если формат не поддерживается, изображение повреждено или слишком велико
+     */
+    public static Map<Integer, byte[]> resize(InputStream source, List<Integer> sizes,
+                                              float quality, long maxPixels) throws IOException {
+        BufferedImage image;
+        List<Integer> targets;
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Неподдерживаемый формат изображения");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Изображение слишком велико: " + width + "x" + height);
+                }
+                int longest = Math.max(width, height);
+                targets = sizes.stream()
+                        .filter(size -> size > 0 && size < longest)
+                        .distinct()
+                        .sorted(Comparator.reverseOrder())
+                        .toList();
+                if (targets.isEmpty()) {
+                    return Map.of();
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longest / (targets.get(0) * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                image = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        Map<Integer, byte[]> variants = new LinkedHashMap<>();
+        BufferedImage current = toRgb(image);
+        for (int size : targets) {
+            current = scaleToFit(current, size);
+            variants.put(size, writeJpeg(current, quality));
+        }
+        return variants;
+    }
+
+    private static BufferedImage scaleToFit(BufferedImage image, int size) {
+        int longest = Math.max(image.getWidth(), image.getHeight());
+        if (longest <= size) {
+            return image;
+        }
+        double scale = (double) size / longest;
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        return draw(image, image.getWidth(), image.getHeight());
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG не поддерживает прозрачность: прозрачные области заполняются белым
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] writeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,96 @@
+package ru.telros.practicum.storage;
+
+import ru.telros.practicum.exception.PhotoTooLargeException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Поток загружаемой фотографии: по мере чтения считает размер и SHA-256 хэш,
+ * запоминает начальные байты для определения типа изображения
+ * и прерывает загрузку, как только размер превышает допустимый.
+ */
+public class PhotoInputStream extends FilterInputStream {
+    private final long maxSize;
+    private final MessageDigest digest;
+    private final byte[] header = new byte[ImageTypeDetector.HEADER_LENGTH];
+    private long size;
+
+    public PhotoInputStream(InputStream in, long maxSize) {
+        super(in);
+        this.maxSize = maxSize;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            digest.update((byte) b);
+            if (size < header.length) {
+                header[(int) size] = (byte) b;
+            }
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            digest.update(b, off, n);
+            if (size < header.length) {
+                System.arraycopy(b, off, header, (int) size, (int) Math.min(n, header.length - size));
+            }
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        throw new UnsupportedOperationException("skip не поддерживается при подсчёте хэша");
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Возвращает SHA-256 хэш прочитанных данных в шестнадцатеричном виде.
+     * Вызывается один раз, после полного чтения потока.
+     */
+    public String getSha256() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Возвращает MIME-тип, определённый по сигнатуре прочитанных данных,
+     * или {@code null}, если формат не распознан.
+     */
+    public String getDetectedContentType() {
+        return ImageTypeDetector.detect(Arrays.copyOf(header, (int) Math.min(size, header.length)));
+    }
+
+    private void count(int n) {
+        size += n;
+        if (size > maxSize) {
+            throw new PhotoTooLargeException(maxSize);
+        }
+    }
+}
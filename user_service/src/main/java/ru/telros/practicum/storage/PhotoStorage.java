@@ -0,0 +1,45 @@
+package ru.telros.practicum.storage;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.UUID;
+
+/**
+ * Хранилище содержимого фотографий пользователей, отделённое от таблицы users.
+ * Реализация выбирается свойством {@code photo-storage.type}.
+ * Рядом с оригиналом хранятся уменьшенные варианты фотографии, идентифицируемые размером в пикселях.
+ * Содержимое передаётся потоками, без буферизации всей фотографии в памяти.
+ * Ошибки ввода-вывода пробрасываются как {@link java.io.UncheckedIOException}.
+ */
+public interface PhotoStorage {
+    /**
+     * Сохраняет фотографию, полностью вычитывая поток. Ранее сохранённая фотография перезаписывается.
+     */
+    void save(UUID userId, InputStream data);
+
+    /**
+     * Записывает в выходной поток фрагмент фотографии.
+     *
+     * @param offset смещение первого байта фрагмента
+     * @param length длина фрагмента в байтах
+     * @return {@code false}, если фотография отсутствует в хранилище
+     */
+    boolean copyTo(UUID userId, OutputStream out, long offset, long length);
+
+    /**
+     * Сохраняет уменьшенный вариант фотографии. Ранее сохранённый вариант того же размера перезаписывается.
+     */
+    void saveVariant(UUID userId, int size, InputStream data);
+
+    /**
+     * Записывает в выходной поток фрагмент уменьшенного варианта фотографии.
+     *
+     * @return {@code false}, если вариант отсутствует в хранилище
+     */
+    boolean copyVariantTo(UUID userId, int size, OutputStream out, long offset, long length);
+
+    /**
+     * Удаляет оригинал фотографии и все её варианты.
+     */
+    void delete(UUID userId);
+}
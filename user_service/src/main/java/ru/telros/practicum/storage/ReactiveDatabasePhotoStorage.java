@@ -0,0 +1,74 @@
+package ru.telros.practicum.storage;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Реактивный аналог {@link DatabasePhotoStorage} на R2DBC.
+ * Фрагмент вырезается на стороне PostgreSQL, поэтому по сети передаётся только запрошенный диапазон.
+ */
+@Component
+@Profile("reactive")
+@ConditionalOnProperty(name = "photo-storage.type", havingValue = "db", matchIfMissing = true)
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReactiveDatabasePhotoStorage implements ReactivePhotoStorage {
+    private static final String UPSERT_SQL = """
+            INSERT INTO user_photos (user_id, data) VALUES (:userId, :data)
+            ON CONFLICT (user_id) DO UPDATE SET data = EXCLUDED.data
+            """;
+    private static final String SELECT_RANGE_SQL = """
+            SELECT substring(data FROM :from FOR :length) FROM user_photos WHERE user_id = :userId
+            """;
+    private static final String SELECT_VARIANT_RANGE_SQL = """
+            SELECT substring(data FROM :from FOR :length) FROM user_photo_variants
+            WHERE user_id = :userId AND size = :size
+            """;
+
+    DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Void> save(UUID userId, byte[] data) {
+        return databaseClient.sql(UPSERT_SQL)
+                .bind("userId", userId)
+                .bind("data", ByteBuffer.wrap(data))
+                .then();
+    }
+
+    @Override
+    public Flux<DataBuffer> read(UUID userId, Integer variant, long offset, long length) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(variant == null ? SELECT_RANGE_SQL : SELECT_VARIANT_RANGE_SQL)
+                .bind("from", Math.toIntExact(offset + 1))
+                .bind("length", Math.toIntExact(length))
+                .bind("userId", userId);
+        if (variant != null) {
+            spec = spec.bind("size", variant);
+        }
+        return spec.map(row -> row.get(0, ByteBuffer.class))
+                .one()
+                .<DataBuffer>map(DefaultDataBufferFactory.sharedInstance::wrap)
+                .flux();
+    }
+
+    @Override
+    public Mono<Void> delete(UUID userId) {
+        return databaseClient.sql("DELETE FROM user_photo_variants WHERE user_id = :userId")
+                .bind("userId", userId)
+                .then()
+                .then(databaseClient.sql("DELETE FROM user_photos WHERE user_id = :userId")
+                        .bind("userId", userId)
+                        .then());
+    }
+}
@@ -0,0 +1,103 @@
+package ru.telros.practicum.storage;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Реактивный доступ к файлам {@link FileSystemPhotoStorage}.
+ * Чтение выполняется через {@link AsynchronousFileChannel} без блокировки потоков event loop,
+ * запись и удаление делегируются блокирующему хранилищу на {@link Schedulers#boundedElastic()}.
+ * Замена оригинала и удаление внутри реактивной транзакции, как и в блокирующем хранилище,
+ * выполняются после её фиксации.
+ */
+@Component
+@Profile("reactive")
+@ConditionalOnProperty(name = "photo-storage.type", havingValue = "fs")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReactiveFileSystemPhotoStorage implements ReactivePhotoStorage {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    FileSystemPhotoStorage fileStorage;
+
+    @Override
+    public Mono<Void> save(UUID userId, byte[] data) {
+        return Mono.fromCallable(() -> fileStorage.stage(userId, new ByteArrayInputStream(data)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(staged -> TransactionSynchronizationManager.forCurrentTransaction()
+                        .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                        .flatMap(synchronizations -> {
+                            synchronizations.registerSynchronization(new TransactionSynchronization() {
+                                @Override
+                                public Mono<Void> afterCommit() {
+                                    return Mono.fromRunnable(() -> fileStorage.publishAfterCommit(userId, staged))
+                                            .subscribeOn(Schedulers.boundedElastic())
+                                            .then();
+                                }
+
+                                @Override
+                                public Mono<Void> afterCompletion(int status) {
+                                    return status == STATUS_COMMITTED
+                                            ? Mono.empty()
+                                            : Mono.fromRunnable(() -> fileStorage.discard(staged));
+                                }
+                            });
+                            return Mono.just(true);
+                        })
+                        .onErrorResume(NoTransactionException.class, ex -> Mono.empty())
+                        .switchIfEmpty(Mono.fromRunnable(() -> fileStorage.publish(userId, staged))
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .thenReturn(true)))
+                .then();
+    }
+
+    @Override
+    public Flux<DataBuffer> read(UUID userId, Integer variant, long offset, long length) {
+        Flux<DataBuffer> content = DataBufferUtils.readAsynchronousFileChannel(
+                () -> AsynchronousFileChannel.open(fileStorage.file(userId, variant), StandardOpenOption.READ),
+                offset, DefaultDataBufferFactory.sharedInstance, BUFFER_SIZE);
+        return DataBufferUtils.takeUntilByteCount(content, length)
+                .onErrorResume(NoSuchFileException.class, ex -> Flux.empty());
+    }
+
+    @Override
+    public Mono<Void> delete(UUID userId) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .flatMap(synchronizations -> {
+                    synchronizations.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return Mono.fromRunnable(() -> fileStorage.deleteFilesAfterCommit(userId))
+                                    .subscribeOn(Schedulers.boundedElastic())
+                                    .then();
+                        }
+                    });
+                    return Mono.just(true);
+                })
+                .onErrorResume(NoTransactionException.class, ex -> Mono.empty())
+                .switchIfEmpty(Mono.fromRunnable(() -> fileStorage.deleteFiles(userId))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .thenReturn(true))
+                .then();
+    }
+}
@@ -0,0 +1,31 @@
+package ru.telros.practicum.storage;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Неблокирующее хранилище содержимого фотографий для реактивного профиля.
+ * Работает с теми же таблицами и файлами, что и {@link PhotoStorage}.
+ */
+public interface ReactivePhotoStorage {
+    /**
+     * Сохраняет фотографию пользователя, заменяя существующую.
+     */
+    Mono<Void> save(UUID userId, byte[] data);
+
+    /**
+     * Читает фрагмент оригинала или варианта фотографии.
+     *
+     * @param variant размер варианта или {@code null} для оригинала
+     * @return содержимое фрагмента или пустой поток, если фотография отсутствует
+     */
+    Flux<DataBuffer> read(UUID userId, Integer variant, long offset, long length);
+
+    /**
+     * Удаляет фотографию пользователя и все её варианты. Отсутствие фотографии ошибкой не считается.
+     */
+    Mono<Void> delete(UUID userId);
+}
@@ -0,0 +1,10 @@
+-- Выполняется после создания схемы Hibernate (spring.jpa.defer-datasource-initialization)
+CREATE INDEX IF NOT EXISTS idx_users_lower_email ON users (lower(email));
+
+-- Триграммный индекс для подсказок при вводе: UserRepository.SEARCH_TEXT в пределах аккаунта.
+-- btree_gist нужен для равенства по account_id в том же GiST-индексе.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+DROP INDEX IF EXISTS idx_users_search_trgm;
+CREATE INDEX IF NOT EXISTS idx_users_account_search_trgm ON users
+    USING gist (account_id, (lower(last_name) || ' ' || lower(first_name) || ' ' || lower(coalesce(email, ''))) gist_trgm_ops);
@@ -0,0 +1,70 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.telros.practicum.cache.AccountExistenceCache;
+import ru.telros.practicum.cache.LastKnownAccountCache;
+import ru.telros.practicum.dto.auth_service.AccountDto;
+import ru.telros.practicum.feign.CoalescingAccountClient;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+public class AccountExistenceCacheTest {
+
+    @Mock
+    private CoalescingAccountClient accountClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID accountId = UUID.randomUUID();
+
+    private AccountExistenceCache accountCache;
+
+    @BeforeEach
+    void setUp() {
+        accountCache = new AccountExistenceCache(accountClient,
+                new LastKnownAccountCache(meterRegistry, 100, Duration.ofHours(1)), meterRegistry,
+                100, Duration.ofMinutes(5), Duration.ofSeconds(10));
+    }
+
+    @Test
+    void exists_shouldCallAuthServiceOnce_whenAccountExists() {
+        Mockito.when(accountClient.findAccount(accountId)).thenReturn(Optional.of(new AccountDto(accountId, "login")));
+
+        Assertions.assertTrue(accountCache.exists(accountId));
+        Assertions.assertTrue(accountCache.exists(accountId));
+
+        Mockito.verify(accountClient, Mockito.times(1)).findAccount(accountId);
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", AccountExistenceCache.CACHE_NAME)
+                .tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void exists_shouldCacheNegativeResult_whenAccountNotFound() {
+        Mockito.when(accountClient.findAccount(accountId)).thenReturn(Optional.empty());
+
+        Assertions.assertFalse(accountCache.exists(accountId));
+        Assertions.assertFalse(accountCache.exists(accountId));
+
+        Mockito.verify(accountClient, Mockito.times(1)).findAccount(accountId);
+    }
+
+    @Test
+    void invalidate_shouldForceReload() {
+        Mockito.when(accountClient.findAccount(accountId)).thenReturn(Optional.of(new AccountDto(accountId, "login")));
+
+        accountCache.exists(accountId);
+        accountCache.invalidate(accountId);
+        accountCache.exists(accountId);
+
+        Mockito.verify(accountClient, Mockito.times(2)).findAccount(accountId);
+    }
+}
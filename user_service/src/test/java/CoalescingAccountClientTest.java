@@ -0,0 +1,155 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import ru.telros.practicum.cache.LastKnownAccountCache;
+import ru.telros.practicum.dto.auth_service.AccountDto;
+import ru.telros.practicum.exception.ServiceUnavailableException;
+import ru.telros.practicum.feign.AuthServiceClient;
+import ru.telros.practicum.feign.CoalescingAccountClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+public class CoalescingAccountClientTest {
+
+    @Mock
+    private AuthServiceClient authServiceClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LastKnownAccountCache lastKnownAccounts = new LastKnownAccountCache(meterRegistry, 100, Duration.ofHours(1));
+
+    private CoalescingAccountClient accountClient;
+
+    @AfterEach
+    void tearDown() {
+        accountClient.shutdown();
+    }
+
+    @Test
+    void getAccount_shouldCombineConcurrentCallsIntoOneBatch() {
+        accountClient = new CoalescingAccountClient(authServiceClient, lastKnownAccounts, meterRegistry,
+                Duration.ofMillis(50), 64, 1, 16, Duration.ZERO, false);
+        UUID existing = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        Mockito.when(authServiceClient.getAccounts(ArgumentMatchers.anyCollection()))
+                .thenReturn(ResponseEntity.ok(List.of(new AccountDto(existing, "login"))));
+
+        CompletableFuture<Optional<AccountDto>> first = accountClient.getAccount(existing);
+        CompletableFuture<Optional<AccountDto>> second = accountClient.getAccount(missing);
+        CompletableFuture<Optional<AccountDto>> duplicate = accountClient.getAccount(existing);
+
+        Assertions.assertEquals("login", first.join().orElseThrow().getLogin());
+        Assertions.assertTrue(second.join().isEmpty());
+        Assertions.assertSame(first, duplicate);
+        Mockito.verify(authServiceClient, Mockito.times(1)).getAccounts(ArgumentMatchers.anyCollection());
+    }
+
+    @Test
+    void getAccount_shouldDispatchImmediately_whenBatchIsFull() {
+        accountClient = new CoalescingAccountClient(authServiceClient, lastKnownAccounts, meterRegistry,
+                Duration.ofMinutes(1), 2, 1, 16, Duration.ZERO, false);
+        Mockito.when(authServiceClient.getAccounts(ArgumentMatchers.anyCollection()))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        CompletableFuture<Optional<AccountDto>> first = accountClient.getAccount(UUID.randomUUID());
+        CompletableFuture<Optional<AccountDto>> second = accountClient.getAccount(UUID.randomUUID());
+
+        Assertions.assertTrue(first.orTimeout(5, TimeUnit.SECONDS).join().isEmpty());
+        Assertions.assertTrue(second.join().isEmpty());
+    }
+
+    @Test
+    void findAccount_shouldRethrowCallError() {
+        accountClient = new CoalescingAccountClient(authServiceClient, lastKnownAccounts, meterRegistry,
+                Duration.ofMillis(1), 64, 1, 16, Duration.ZERO, false);
+        Mockito.when(authServiceClient.getAccounts(ArgumentMatchers.anyCollection()))
+                .thenThrow(new ServiceUnavailableException("Auth-service недоступен"));
+
+        Assertions.assertThrows(ServiceUnavailableException.class,
+                () -> accountClient.findAccount(UUID.randomUUID()));
+    }
+
+    @Test
+    void findAccount_shouldServeLastKnownAccount_whenAuthServiceUnavailable() {
+        accountClient = new CoalescingAccountClient(authServiceClient, lastKnownAccounts, meterRegistry,
+                Duration.ofMillis(1), 64, 1, 16, Duration.ZERO, false);
+        UUID accountId = UUID.randomUUID();
+        Mockito.when(authServiceClient.getAccounts(ArgumentMatchers.anyCollection()))
+                .thenReturn(ResponseEntity.ok(List.of(new AccountDto(accountId, "login"))))
+                .thenThrow(new ServiceUnavailableException("Auth-service недоступен"));
+
+        accountClient.findAccount(accountId);
+
+        Assertions.assertEquals("login", accountClient.findAccount(accountId).orElseThrow().getLogin());
+        Assertions.assertThrows(ServiceUnavailableException.class,
+                () -> accountClient.findAccount(UUID.randomUUID()));
+        Assertions.assertEquals(1.0, meterRegistry.get("account.last-known.served").counter().count());
+    }
+
+    @Test
+    void getAccount_shouldNotQueueBatch_whenDispatchQueueIsFull() throws InterruptedException {
+        accountClient = new CoalescingAccountClient(authServiceClient, lastKnownAccounts, meterRegistry,
+                Duration.ofMinutes(1), 1, 1, 1, Duration.ZERO, false);
+        UUID knownAccountId = UUID.randomUUID();
+        lastKnownAccounts.put(new AccountDto(knownAccountId, "login"));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(authServiceClient.getAccounts(ArgumentMatchers.anyCollection()))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await();
+                    return ResponseEntity.ok(List.of());
+                });
+
+        try {
+            accountClient.getAccount(UUID.randomUUID());
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            accountClient.getAccount(UUID.randomUUID());
+
+            CompletableFuture<Optional<AccountDto>> known = accountClient.getAccount(knownAccountId);
+            CompletableFuture<Optional<AccountDto>> unknown = accountClient.getAccount(UUID.randomUUID());
+
+            Assertions.assertEquals("login", known.getNow(Optional.empty()).orElseThrow().getLogin());
+            Assertions.assertThrows(ServiceUnavailableException.class,
+                    () -> accountClient.findAccount(UUID.randomUUID()));
+            Assertions.assertTrue(unknown.isCompletedExceptionally());
+        } finally {
+            release.countDown();
+        }
+        Assertions.assertEquals(3.0, meterRegistry.get("account.batch.rejected").counter().count());
+    }
+
+    @Test
+    void findAccount_shouldUseHedgedCall_whenFirstCallIsSlow() {
+        accountClient = new CoalescingAccountClient(authServiceClient, lastKnownAccounts, meterRegistry,
+                Duration.ofMillis(1), 64, 1, 16, Duration.ofMillis(20), false);
+        UUID accountId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(authServiceClient.getAccounts(ArgumentMatchers.anyCollection()))
+                .thenAnswer(invocation -> {
+                    release.await();
+                    return ResponseEntity.ok(List.of());
+                })
+                .thenReturn(ResponseEntity.ok(List.of(new AccountDto(accountId, "login"))));
+
+        try {
+            Assertions.assertEquals("login", accountClient.findAccount(accountId).orElseThrow().getLogin());
+        } finally {
+            release.countDown();
+        }
+        Assertions.assertEquals(1.0, meterRegistry.get("account.batch.hedged").counter().count());
+    }
+}
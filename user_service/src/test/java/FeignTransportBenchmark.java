@@ -0,0 +1,142 @@
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import ru.telros.practicum.feign.GzipDecodingCapability;
+
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Бенчмарк транспортов Feign для вызовов user_service → auth_service.
+ * <p>
+ * Не запускается surefire. Нужен запущенный auth-service; по очереди нагружаются транспорты
+ * {@code default} (HttpURLConnection, прежний), {@code hc5} (пул Apache HttpClient 5) и {@code http2}
+ * (JDK HttpClient, h2c) одним и тем же запросом {@code POST /internal/auth/account/batch}:
+ * <pre>
+ * java -Dbench.url=http://localhost:8081 -Dbench.ids={accountId},{accountId} \
+ *     -Dbench.concurrency=64 -Dbench.duration=PT30S -Dbench.transports=default,hc5,http2 \
+ *     -cp user_service/target/test-classes:{classpath} FeignTransportBenchmark
+ * </pre>
+ * Без {@code bench.ids} запрашиваются {@code bench.batch-size} случайных id (ответ — пустой список),
+ * с существующими id ответ от 2 КБ сжимается gzip. Для каждого транспорта печатает число вызовов в секунду,
+ * долю ошибок и перцентили задержки (p50, p99, max).
+ */
+public class FeignTransportBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("bench.url", "http://localhost:8081") + "/internal/auth/account/batch";
+        int concurrency = Integer.getInteger("bench.concurrency", 64);
+        Duration duration = Duration.parse(System.getProperty("bench.duration", "PT30S"));
+        Duration warmup = Duration.parse(System.getProperty("bench.warmup", "PT5S"));
+        List<String> transports = List.of(System.getProperty("bench.transports", "default,hc5,http2").split(","));
+
+        String ids = System.getProperty("bench.ids");
+        List<String> accountIds = ids == null
+                ? IntStream.range(0, Integer.getInteger("bench.batch-size", 64))
+                .mapToObj(i -> UUID.randomUUID().toString()).toList()
+                : List.of(ids.split(","));
+        byte[] body = accountIds.stream()
+                .map(id -> "\"" + id + "\"")
+                .collect(Collectors.joining(",", "[", "]"))
+                .getBytes(StandardCharsets.UTF_8);
+        Map<String, Collection<String>> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", List.of("application/json"));
+        headers.put("Accept", List.of("application/json"));
+        headers.put("Accept-Encoding", List.of("gzip"));
+        Request request = Request.create(Request.HttpMethod.POST, url, headers, body, StandardCharsets.UTF_8, null);
+        Request.Options options = new Request.Options(500, TimeUnit.MILLISECONDS, 2000, TimeUnit.MILLISECONDS, true);
+
+        System.out.printf("url=%s ids=%d concurrency=%d duration=%s%n", url, accountIds.size(), concurrency, duration);
+        for (String transport : transports) {
+            Client client = new GzipDecodingCapability().enrich(createClient(transport, concurrency));
+            run(client, request, options, concurrency, warmup);
+            Result result = run(client, request, options, concurrency, duration);
+
+            long[] latencies = result.latencies();
+            Arrays.sort(latencies);
+            double seconds = duration.toNanos() / 1e9;
+            System.out.printf("%-8s calls=%d errors=%d throughput=%.1f calls/s p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                    transport, latencies.length, result.errors(), latencies.length / seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0));
+        }
+    }
+
+    private static Client createClient(String transport, int concurrency) {
+        return switch (transport) {
+            case "default" -> new Client.Default(null, null);
+            case "hc5" -> new ApacheHttp5Client(HttpClients.custom()
+                    .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                            .setMaxConnTotal(concurrency)
+                            .setMaxConnPerRoute(concurrency)
+                            .build())
+                    .build());
+            case "http2" -> new Http2Client(HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofMillis(500))
+                    .build());
+            default -> throw new IllegalArgumentException("Неизвестный транспорт: " + transport);
+        };
+    }
+
+    private static Result run(Client client, Request request, Request.Options options, int concurrency,
+                              Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<List<Long>> perWorker = new ArrayList<>();
+        // Клиентские потоки виртуальные, чтобы генератор нагрузки сам не был узким местом
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                List<Long> latencies = new ArrayList<>();
+                perWorker.add(latencies);
+                workers.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try (Response response = client.execute(request, options)) {
+                            // Тело дочитывается, иначе соединение не вернётся в пул
+                            if (response.body() != null) {
+                                response.body().asInputStream().readAllBytes();
+                            }
+                            if (response.status() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception ex) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - start);
+                    }
+                });
+            }
+        }
+        long[] all = perWorker.stream().flatMap(List::stream).mapToLong(Long::longValue).toArray();
+        return new Result(all, errors.get());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+}
@@ -0,0 +1,101 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.telros.practicum.storage.FileSystemPhotoStorage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class FileSystemPhotoStorageTest {
+
+    @TempDir
+    private Path rootDir;
+
+    private final UUID userId = UUID.randomUUID();
+    private final byte[] photoBytes = "test-photo".getBytes();
+
+    private FileSystemPhotoStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new FileSystemPhotoStorage(rootDir);
+        storage.save(userId, new ByteArrayInputStream(photoBytes));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void delete_shouldRemoveFilesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        storage.delete(userId);
+
+        Assertions.assertArrayEquals(photoBytes, read());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        Assertions.assertNull(read());
+    }
+
+    @Test
+    void delete_shouldKeepFiles_whenTransactionRolledBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        storage.delete(userId);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        Assertions.assertArrayEquals(photoBytes, read());
+    }
+
+    @Test
+    void save_shouldReplaceFileOnlyAfterCommit() {
+        byte[] newBytes = "new-photo".getBytes();
+        TransactionSynchronizationManager.initSynchronization();
+
+        storage.save(userId, new ByteArrayInputStream(newBytes));
+
+        Assertions.assertArrayEquals(photoBytes, read());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        Assertions.assertArrayEquals(newBytes, read());
+    }
+
+    @Test
+    void save_shouldKeepPreviousFileAndDropStagedCopy_whenTransactionRolledBack() throws IOException {
+        TransactionSynchronizationManager.initSynchronization();
+
+        storage.save(userId, new ByteArrayInputStream("new-photo".getBytes()));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        Assertions.assertArrayEquals(photoBytes, read());
+        try (Stream<Path> files = Files.list(rootDir)) {
+            Assertions.assertTrue(files.noneMatch(file -> file.toString().endsWith(".tmp")));
+        }
+    }
+
+    private void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private byte[] read() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        return storage.copyTo(userId, out, 0, Long.MAX_VALUE) ? out.toByteArray() : null;
+    }
+}
@@ -0,0 +1,41 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.telros.practicum.storage.ImageResizer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+public class ImageResizerTest {
+
+    @Test
+    void resize_shouldFitLongestSideAndSkipSizesNotSmallerThanSource() throws IOException {
+        byte[] png = png(400, 200);
+
+        Map<Integer, byte[]> variants = ImageResizer.resize(
+                new ByteArrayInputStream(png), List.of(64, 256, 1024), 0.85f, 1_000_000L);
+
+        Assertions.assertEquals(List.of(256, 64), List.copyOf(variants.keySet()));
+        BufferedImage small = ImageIO.read(new ByteArrayInputStream(variants.get(64)));
+        Assertions.assertEquals(64, small.getWidth());
+        Assertions.assertEquals(32, small.getHeight());
+    }
+
+    @Test
+    void resize_shouldReject_whenSourceHasTooManyPixels() throws IOException {
+        byte[] png = png(400, 200);
+
+        Assertions.assertThrows(IOException.class, () -> ImageResizer.resize(
+                new ByteArrayInputStream(png), List.of(64), 0.85f, 1000L));
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+}
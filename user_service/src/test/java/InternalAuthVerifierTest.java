@@ -0,0 +1,46 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.telros.practicum.security.InternalAuthVerifier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+public class InternalAuthVerifierTest {
+    private static final String SECRET = "4a5b5YGDZSmujr9c/WtsITESSE7A3ITSRquS+AZDCQA=";
+
+    private final UUID accountId = UUID.randomUUID();
+
+    @Test
+    void verify_shouldReturnAccountId_whenHeaderIsSignedAndNotExpired() throws Exception {
+        InternalAuthVerifier verifier = new InternalAuthVerifier(SECRET);
+
+        Optional<UUID> result = verifier.verify(sign(accountId, Instant.now().plusSeconds(60)));
+
+        Assertions.assertEquals(Optional.of(accountId), result);
+    }
+
+    @Test
+    void verify_shouldReturnEmpty_whenHeaderIsTamperedOrExpired() throws Exception {
+        InternalAuthVerifier verifier = new InternalAuthVerifier(SECRET);
+        String valid = sign(accountId, Instant.now().plusSeconds(60));
+        String forged = UUID.randomUUID() + valid.substring(valid.indexOf('.'));
+
+        Assertions.assertTrue(verifier.verify(forged).isEmpty());
+        Assertions.assertTrue(verifier.verify(sign(accountId, Instant.now().minusSeconds(1))).isEmpty());
+        Assertions.assertTrue(verifier.verify("garbage").isEmpty());
+        Assertions.assertTrue(new InternalAuthVerifier("").verify(valid).isEmpty());
+    }
+
+    private String sign(UUID accountId, Instant expiresAt) throws Exception {
+        String payload = accountId + "." + expiresAt.getEpochSecond();
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(Base64.getDecoder().decode(SECRET), "HmacSHA256"));
+        return payload + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,101 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.telros.practicum.cache.AccountExistenceCache;
+import ru.telros.practicum.entity.OutboxMessage;
+import ru.telros.practicum.entity.OutboxMessageType;
+import ru.telros.practicum.exception.ServiceUnavailableException;
+import ru.telros.practicum.feign.AuthServiceClient;
+import ru.telros.practicum.repository.OutboxMessageRepository;
+import ru.telros.practicum.service.OutboxRelay;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+
+    @Mock
+    private OutboxMessageRepository outboxRepository;
+
+    @Mock
+    private AuthServiceClient authServiceClient;
+
+    @Mock
+    private AccountExistenceCache accountCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID accountId = UUID.randomUUID();
+
+    private OutboxRelay relay;
+    private OutboxMessage message;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxRepository, authServiceClient, accountCache, transactionManager, meterRegistry,
+                Duration.ofSeconds(1), 10, Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ofMinutes(5));
+        message = OutboxMessage.builder()
+                .id(UUID.randomUUID())
+                .type(OutboxMessageType.ACCOUNT_DELETION)
+                .aggregateId(accountId)
+                .createdAt(Instant.now())
+                .nextAttemptAt(Instant.now())
+                .build();
+        Mockito.when(outboxRepository.lockDue(Mockito.any(), Mockito.eq(10))).thenReturn(List.of(message));
+    }
+
+    @Test
+    void drain_shouldDeleteAccountWithIdempotencyKeyAndRemoveMessage() {
+        relay.drain();
+
+        Mockito.verify(authServiceClient).deleteAccount(accountId, message.getId());
+        Mockito.verify(outboxRepository).deleteById(message.getId());
+        Mockito.verify(accountCache).invalidate(accountId);
+        Assertions.assertEquals(1.0, meterRegistry.get("outbox.relay.delivered").counter().count());
+    }
+
+    @Test
+    void drain_shouldPostponeMessage_whenAuthServiceFails() {
+        Mockito.when(authServiceClient.deleteAccount(accountId, message.getId()))
+                .thenThrow(new ServiceUnavailableException("Auth-service недоступен"));
+
+        relay.drain();
+
+        Mockito.verify(outboxRepository, Mockito.never()).deleteById(Mockito.any());
+        Assertions.assertEquals(1, message.getAttempts());
+        Assertions.assertTrue(message.getNextAttemptAt().isAfter(Instant.now()));
+        Assertions.assertNotNull(message.getLastError());
+        Mockito.verify(outboxRepository).reschedule(message.getId(), 1, message.getLastError(),
+                message.getNextAttemptAt());
+        Assertions.assertEquals(1.0, meterRegistry.get("outbox.relay.failed").counter().count());
+    }
+
+    @Test
+    void drain_shouldLeaseMessagesAndDeliverAfterClaimCommitted() {
+        Instant before = Instant.now();
+        Mockito.when(authServiceClient.deleteAccount(accountId, message.getId())).thenAnswer(invocation -> {
+            // аренда выставлена до вызова auth-service
+            Assertions.assertFalse(message.getNextAttemptAt().isBefore(before.plusSeconds(59)));
+            return null;
+        });
+
+        relay.drain();
+
+        InOrder inOrder = Mockito.inOrder(transactionManager, authServiceClient, outboxRepository);
+        inOrder.verify(transactionManager).commit(Mockito.any());
+        inOrder.verify(authServiceClient).deleteAccount(accountId, message.getId());
+        inOrder.verify(outboxRepository).deleteById(message.getId());
+    }
+}
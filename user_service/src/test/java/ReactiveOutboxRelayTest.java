@@ -0,0 +1,83 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.telros.practicum.cache.ReactiveAccountExistenceCache;
+import ru.telros.practicum.client.ReactiveAuthServiceClient;
+import ru.telros.practicum.entity.OutboxMessage;
+import ru.telros.practicum.entity.OutboxMessageType;
+import ru.telros.practicum.exception.ServiceUnavailableException;
+import ru.telros.practicum.repository.ReactiveOutboxRepository;
+import ru.telros.practicum.service.ReactiveOutboxRelay;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveOutboxRelayTest {
+
+    @Mock
+    private ReactiveOutboxRepository outboxRepository;
+
+    @Mock
+    private ReactiveAuthServiceClient authServiceClient;
+
+    @Mock
+    private ReactiveAccountExistenceCache accountCache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID accountId = UUID.randomUUID();
+
+    private ReactiveOutboxRelay relay;
+    private OutboxMessage message;
+
+    @BeforeEach
+    void setUp() {
+        relay = new ReactiveOutboxRelay(outboxRepository, authServiceClient, accountCache, meterRegistry,
+                Duration.ofSeconds(1), 10, Duration.ofMinutes(5), Duration.ofSeconds(1), Duration.ofMinutes(5));
+        message = OutboxMessage.builder()
+                .id(UUID.randomUUID())
+                .type(OutboxMessageType.ACCOUNT_DELETION)
+                .aggregateId(accountId)
+                .createdAt(Instant.now())
+                .nextAttemptAt(Instant.now())
+                .build();
+        Mockito.when(outboxRepository.claimDue(Mockito.any(), Mockito.any(), Mockito.eq(10)))
+                .thenReturn(Flux.just(message));
+        Mockito.when(outboxRepository.count()).thenReturn(Mono.just(0L));
+        Mockito.when(outboxRepository.findOldestCreatedAt()).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void drain_shouldDeleteAccountWithIdempotencyKeyAndRemoveMessage() {
+        Mockito.when(authServiceClient.deleteAccount(accountId, message.getId())).thenReturn(Mono.empty());
+        Mockito.when(outboxRepository.deleteById(message.getId())).thenReturn(Mono.empty());
+
+        relay.drain().block();
+
+        Mockito.verify(outboxRepository).deleteById(message.getId());
+        Mockito.verify(accountCache).invalidate(accountId);
+        Assertions.assertEquals(1.0, meterRegistry.get("outbox.relay.delivered").counter().count());
+    }
+
+    @Test
+    void drain_shouldPostponeMessage_whenAuthServiceFails() {
+        Mockito.when(authServiceClient.deleteAccount(accountId, message.getId()))
+                .thenReturn(Mono.error(new ServiceUnavailableException("Auth-service недоступен")));
+        Mockito.when(outboxRepository.reschedule(Mockito.eq(message.getId()), Mockito.eq(1), Mockito.anyString(),
+                Mockito.any())).thenReturn(Mono.empty());
+
+        relay.drain().block();
+
+        Mockito.verify(outboxRepository, Mockito.never()).deleteById(Mockito.any());
+        Assertions.assertTrue(message.getNextAttemptAt().isAfter(Instant.now()));
+        Assertions.assertEquals(1.0, meterRegistry.get("outbox.relay.failed").counter().count());
+    }
+}
@@ -0,0 +1,132 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.telros.practicum.cache.ReactiveAccountExistenceCache;
+import ru.telros.practicum.config.PhotoStorageProperties;
+import ru.telros.practicum.entity.OutboxMessage;
+import ru.telros.practicum.entity.OutboxMessageType;
+import ru.telros.practicum.entity.PhotoMetadata;
+import ru.telros.practicum.entity.User;
+import ru.telros.practicum.exception.PhotoTooLargeException;
+import ru.telros.practicum.exception.UserNotFoundException;
+import ru.telros.practicum.mapper.UserMapper;
+import ru.telros.practicum.repository.ReactiveOutboxRepository;
+import ru.telros.practicum.repository.ReactivePhotoMetadataRepository;
+import ru.telros.practicum.repository.ReactiveUserRepository;
+import ru.telros.practicum.service.ReactiveUserServiceImpl;
+import ru.telros.practicum.storage.ReactivePhotoStorage;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveUserServiceTest {
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private ReactivePhotoMetadataRepository photoMetadataRepository;
+
+    @Mock
+    private ReactivePhotoStorage photoStorage;
+
+    @Mock
+    private ReactiveAccountExistenceCache accountCache;
+
+    @Mock
+    private ReactiveOutboxRepository outboxRepository;
+
+    @Spy
+    private PhotoStorageProperties photoStorageProperties = new PhotoStorageProperties();
+
+    @Mock
+    private UserMapper mapper;
+
+    @InjectMocks
+    private ReactiveUserServiceImpl userService;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+    private final byte[] photoBytes = "test-photo".getBytes();
+
+    @Test
+    void uploadPhoto_shouldJoinBuffersAndSaveMetadata() {
+        Mockito.when(userRepository.existsByIdAndAccountId(userId, accountId)).thenReturn(Mono.just(true));
+        Mockito.when(photoStorage.save(Mockito.eq(userId), Mockito.any(byte[].class))).thenReturn(Mono.empty());
+        Mockito.when(photoMetadataRepository.save(Mockito.any())).thenReturn(Mono.empty());
+
+        userService.uploadPhoto(userId, accountId, content(photoBytes, 4), "image/png").block();
+
+        ArgumentCaptor<PhotoMetadata> captor = ArgumentCaptor.forClass(PhotoMetadata.class);
+        Mockito.verify(photoMetadataRepository).save(captor.capture());
+        Assertions.assertEquals(photoBytes.length, captor.getValue().getSize());
+        Assertions.assertEquals("image/png", captor.getValue().getContentType());
+        Assertions.assertEquals(64, captor.getValue().getSha256().length());
+        Mockito.verify(photoStorage).save(userId, photoBytes);
+    }
+
+    @Test
+    void uploadPhoto_shouldFail_whenPhotoTooLarge() {
+        photoStorageProperties.setMaxSize(DataSize.ofBytes(photoBytes.length - 1));
+        Mockito.when(userRepository.existsByIdAndAccountId(userId, accountId)).thenReturn(Mono.just(true));
+
+        Assertions.assertThrows(PhotoTooLargeException.class, () ->
+                userService.uploadPhoto(userId, accountId, content(photoBytes, 4), "image/png").block());
+        Mockito.verifyNoInteractions(photoStorage, photoMetadataRepository);
+    }
+
+    @Test
+    void uploadPhoto_shouldFail_whenProfileBelongsToAnotherAccount() {
+        Mockito.when(userRepository.existsByIdAndAccountId(userId, accountId)).thenReturn(Mono.just(false));
+
+        Assertions.assertThrows(UserNotFoundException.class, () ->
+                userService.uploadPhoto(userId, accountId, content(photoBytes, 4), "image/png").block());
+        Mockito.verifyNoInteractions(photoStorage, photoMetadataRepository);
+    }
+
+    @Test
+    void deleteUserById_shouldQueueAccountDeletionInOutbox() {
+        Mockito.when(accountCache.exists(accountId)).thenReturn(Mono.just(true));
+        Mockito.when(userRepository.findByIdAndAccountId(userId, accountId))
+                .thenReturn(Mono.just(User.builder().id(userId).accountId(accountId).build()));
+        Mockito.when(photoStorage.delete(userId)).thenReturn(Mono.empty());
+        Mockito.when(photoMetadataRepository.deleteAllByUserId(userId)).thenReturn(Mono.empty());
+        Mockito.when(userRepository.deleteById(userId)).thenReturn(Mono.empty());
+        Mockito.when(outboxRepository.insert(Mockito.any())).thenReturn(Mono.empty());
+
+        userService.deleteUserById(userId, accountId).block();
+
+        ArgumentCaptor<OutboxMessage> captor = ArgumentCaptor.forClass(OutboxMessage.class);
+        Mockito.verify(outboxRepository).insert(captor.capture());
+        Assertions.assertEquals(OutboxMessageType.ACCOUNT_DELETION, captor.getValue().getType());
+        Assertions.assertEquals(accountId, captor.getValue().getAggregateId());
+        Mockito.verify(accountCache, Mockito.never()).invalidate(Mockito.any());
+    }
+
+    @Test
+    void getUserById_shouldFailWithoutCallingAuthService_whenProfileBelongsToAnotherAccount() {
+        Mockito.when(userRepository.findByIdAndAccountId(userId, accountId)).thenReturn(Mono.empty());
+
+        Assertions.assertThrows(UserNotFoundException.class, () ->
+                userService.getUserById(userId, accountId).block());
+        Mockito.verifyNoInteractions(accountCache);
+    }
+
+    private static Flux<DataBuffer> content(byte[] data, int chunkSize) {
+        return Flux.range(0, (data.length + chunkSize - 1) / chunkSize)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(data, i * chunkSize,
+                        Math.min(chunkSize, data.length - i * chunkSize))));
+    }
+}
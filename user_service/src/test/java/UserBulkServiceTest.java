@@ -0,0 +1,148 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.telros.practicum.cache.AccountExistenceCache;
+import ru.telros.practicum.dto.user_service.BulkImportResultDto;
+import ru.telros.practicum.exception.AccountNotFoundException;
+import ru.telros.practicum.exception.InvalidImportFormatException;
+import ru.telros.practicum.repository.UserBulkRepository;
+import ru.telros.practicum.service.UserBulkService;
+import ru.telros.practicum.service.UserBulkServiceImpl;
+import ru.telros.practicum.service.UserChangeLog;
+import ru.telros.practicum.service.UserImportRow;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+public class UserBulkServiceTest {
+
+    @Mock
+    private UserBulkRepository bulkRepository;
+
+    @Mock
+    private UserChangeLog changeLog;
+
+    @Mock
+    private AccountExistenceCache accountCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID otherAccountId = UUID.randomUUID();
+
+    private UserBulkServiceImpl bulkService;
+
+    @BeforeEach
+    void setUp() {
+        bulkService = new UserBulkServiceImpl(bulkRepository, changeLog, accountCache,
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                transactionManager, 2, 100);
+        Mockito.lenient().when(accountCache.exists(accountId)).thenReturn(true);
+    }
+
+    @Test
+    void importUsers_shouldInsertValidRowsInChunksAndReportInvalidOnes() {
+        String ndjson = String.join("\n",
+                row(accountId, "Ivanov", "ivanov@mail.com"),
+                row(accountId, "I", "short@mail.com"),
+                "{not json",
+                "",
+                row(otherAccountId, "Petrov", "petrov@mail.com"),
+                row(accountId, "Sidorov", "sidorov@mail.com"),
+                row(accountId, "Smirnov", "smirnov@mail.com"));
+
+        BulkImportResultDto result = bulkService.importUsers(stream(ndjson), UserBulkService.NDJSON, accountId);
+
+        Assertions.assertEquals(3, result.getImported());
+        Assertions.assertEquals(3, result.getFailed());
+        Assertions.assertEquals(List.of(2L, 3L, 5L),
+                result.getErrors().stream().map(BulkImportResultDto.RowError::getLine).toList());
+        ArgumentCaptor<List<UserImportRow>> rows = ArgumentCaptor.captor();
+        Mockito.verify(bulkRepository, Mockito.times(2)).insertAll(Mockito.anyList(), rows.capture());
+        Assertions.assertEquals("Ivanov", rows.getAllValues().get(0).get(0).lastName());
+        Mockito.verify(changeLog, Mockito.times(2)).recordImported(Mockito.anyList(), Mockito.anyList());
+    }
+
+    @Test
+    void importUsers_shouldRejectRowsOfAnotherAccount() {
+        String ndjson = row(otherAccountId, "Petrov", "petrov@mail.com");
+
+        BulkImportResultDto result = bulkService.importUsers(stream(ndjson), UserBulkService.NDJSON, accountId);
+
+        Assertions.assertEquals(0, result.getImported());
+        Assertions.assertEquals(1, result.getFailed());
+        Mockito.verifyNoInteractions(bulkRepository, changeLog);
+    }
+
+    @Test
+    void importUsers_shouldParseCsvByHeader() {
+        String csv = "email,lastName,firstName,accountId,birthDate\n"
+                + "ivanov@mail.com,\"Ivanov, Jr\",Ivan," + accountId + ",1990-05-01\n";
+
+        BulkImportResultDto result = bulkService.importUsers(stream(csv), UserBulkService.CSV, accountId);
+
+        Assertions.assertEquals(1, result.getImported());
+        ArgumentCaptor<List<UserImportRow>> rows = ArgumentCaptor.captor();
+        Mockito.verify(bulkRepository).insertAll(Mockito.anyList(), rows.capture());
+        Assertions.assertEquals("Ivanov, Jr", rows.getValue().get(0).lastName());
+        Assertions.assertEquals(1990, rows.getValue().get(0).birthDate().getYear());
+    }
+
+    @Test
+    void importUsers_shouldReportCsvRowWithoutAccountId() {
+        String csv = "accountId,lastName,firstName,email\n"
+                + ",Ivanov,Ivan,ivanov@mail.com\n"
+                + accountId + ",Petrov,Petr,petrov@mail.com\n";
+
+        BulkImportResultDto result = bulkService.importUsers(stream(csv), UserBulkService.CSV, accountId);
+
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(1, result.getFailed());
+        Assertions.assertEquals(2L, result.getErrors().get(0).getLine());
+        Assertions.assertTrue(result.getErrors().get(0).getMessage().startsWith("accountId"));
+    }
+
+    @Test
+    void importUsers_shouldRejectCsvWithoutRequiredColumns() {
+        Assertions.assertThrows(InvalidImportFormatException.class, () ->
+                bulkService.importUsers(stream("lastName,firstName\nIvanov,Ivan\n"), UserBulkService.CSV, accountId));
+    }
+
+    @Test
+    void exportUsers_shouldExportCallerAccount_whenAccountNotSpecified() {
+        bulkService.exportUsers(UserBulkService.NDJSON, null, accountId).accept(new ByteArrayOutputStream());
+
+        Mockito.verify(bulkRepository).forEach(Mockito.eq(accountId), Mockito.any());
+    }
+
+    @Test
+    void exportUsers_shouldThrowAccountNotFound_whenAnotherAccountRequested() {
+        Assertions.assertThrows(AccountNotFoundException.class, () ->
+                bulkService.exportUsers(UserBulkService.NDJSON, otherAccountId, accountId));
+        Mockito.verifyNoInteractions(bulkRepository);
+    }
+
+    private static String row(UUID accountId, String lastName, String email) {
+        return String.format("{\"accountId\":\"%s\",\"lastName\":\"%s\",\"firstName\":\"Ivan\",\"email\":\"%s\"}",
+                accountId, lastName, email);
+    }
+
+    private static ByteArrayInputStream stream(String data) {
+        return new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+    }
+}
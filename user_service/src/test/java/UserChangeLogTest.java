@@ -0,0 +1,95 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import ru.telros.practicum.entity.UserChange;
+import ru.telros.practicum.entity.UserChangeType;
+import ru.telros.practicum.event.InMemoryUserEventBus;
+import ru.telros.practicum.event.UserChangedEvent;
+import ru.telros.practicum.repository.UserBulkRepository;
+import ru.telros.practicum.repository.UserChangeRepository;
+import ru.telros.practicum.service.UserChangeLog;
+import ru.telros.practicum.service.UserImportRow;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+public class UserChangeLogTest {
+
+    @Mock
+    private UserChangeRepository changeRepository;
+
+    @Mock
+    private UserBulkRepository bulkRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final InMemoryUserEventBus eventBus = new InMemoryUserEventBus();
+    private final UUID userId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+
+    private UserChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        changeLog = new UserChangeLog(changeRepository, bulkRepository, eventPublisher, eventBus);
+    }
+
+    @Test
+    void record_shouldSaveChangeAndPublishToBusAfterCommit() {
+        List<UserChangedEvent> received = new ArrayList<>();
+        eventBus.subscribe(received::add);
+
+        changeLog.record(userId, accountId, UserChangeType.UPDATED, Map.of("email", "new@mail.com"));
+
+        ArgumentCaptor<UserChange> saved = ArgumentCaptor.forClass(UserChange.class);
+        InOrder inOrder = Mockito.inOrder(bulkRepository, changeRepository);
+        // номер записи выдаётся только под блокировкой журнала аккаунта
+        inOrder.verify(bulkRepository).lockChangeLog(List.of(accountId));
+        inOrder.verify(changeRepository).save(saved.capture());
+        Assertions.assertEquals(Map.of("email", "new@mail.com"), saved.getValue().getChanges());
+        ArgumentCaptor<UserChangedEvent> event = ArgumentCaptor.forClass(UserChangedEvent.class);
+        Mockito.verify(eventPublisher).publishEvent(event.capture());
+        // до фиксации транзакции подписчики шины событие не получают
+        Assertions.assertTrue(received.isEmpty());
+
+        changeLog.onUserChanged(event.getValue());
+
+        Assertions.assertEquals(1, received.size());
+        Assertions.assertEquals(userId, received.get(0).userId());
+    }
+
+    @Test
+    void recordImported_shouldLockChangeLogOfImportedAccountsBeforeInsert() {
+        UUID otherAccountId = UUID.randomUUID();
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UserImportRow> rows = List.of(
+                new UserImportRow(accountId, "Иванов", "Иван", null, "ivan@mail.com", null),
+                new UserImportRow(otherAccountId, "Петров", "Пётр", null, "petr@mail.com", null));
+
+        changeLog.recordImported(ids, rows);
+
+        InOrder inOrder = Mockito.inOrder(bulkRepository);
+        inOrder.verify(bulkRepository).lockChangeLog(List.of(accountId, otherAccountId));
+        inOrder.verify(bulkRepository).insertCreatedChanges(Mockito.eq(ids), Mockito.any(Instant.class));
+    }
+
+    @Test
+    void findChanges_shouldReadChangesAfterCursor() {
+        changeLog.findChanges(accountId, 10, 100);
+
+        Mockito.verify(changeRepository).findByAccountIdAndIdGreaterThanOrderByIdAsc(accountId, 10L, Limit.of(100));
+    }
+}
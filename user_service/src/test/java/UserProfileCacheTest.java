@@ -0,0 +1,55 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.telros.practicum.cache.InMemorySharedUserProfileCache;
+import ru.telros.practicum.cache.UserProfileCache;
+import ru.telros.practicum.dto.user_service.UserDto;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class UserProfileCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemorySharedUserProfileCache sharedCache = new InMemorySharedUserProfileCache();
+    private final UUID userId = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<UUID, UserDto> loader = id -> {
+        loads.incrementAndGet();
+        return UserDto.builder().id(id).build();
+    };
+
+    @Test
+    void get_shouldReuseProfileLoadedByAnotherInstance() {
+        UserProfileCache first = newInstance();
+        UserProfileCache second = newInstance();
+
+        first.get(userId, loader);
+        second.get(userId, loader);
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1.0, meterRegistry.get("user.cache.shared.gets")
+                .tag("result", "hit")
+                .counter().count());
+    }
+
+    @Test
+    void invalidate_shouldEvictProfileOnAllInstances() {
+        UserProfileCache first = newInstance();
+        UserProfileCache second = newInstance();
+        first.get(userId, loader);
+        second.get(userId, loader);
+
+        first.invalidate(userId);
+        second.get(userId, loader);
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    private UserProfileCache newInstance() {
+        return new UserProfileCache(meterRegistry, Optional.of(sharedCache), 100, Duration.ofMinutes(5));
+    }
+}
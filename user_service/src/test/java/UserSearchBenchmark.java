@@ -0,0 +1,160 @@
+import ru.telros.practicum.repository.UserRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Бенчмарк поиска подсказок {@link UserRepository#SEARCH_SQL} против {@code ILIKE '%x%'} без индекса.
+ * <p>
+ * Не запускается surefire. Нужна отдельная пустая база Postgres с расширением pg_trgm:
+ * таблица users заполняется {@code bench.rows} сгенерированными профилями {@code bench.accounts} аккаунтов,
+ * после чего строится тот же индекс, что и в schema.sql. Каждый запрос ищет в пределах одного аккаунта.
+ * <pre>
+ * java -Dbench.jdbc-url=jdbc:postgresql://localhost:5436/bench -Dbench.user=user -Dbench.password=user \
+ *     -Dbench.rows=1000000 -Dbench.accounts=1000 -Dbench.queries=2000 \
+ *     -cp user_service/target/test-classes:user_service/target/classes:{classpath} UserSearchBenchmark
+ * </pre>
+ * Запускается для 1M и 10M строк; повторный запуск с тем же числом строк заполнение пропускает.
+ * Печатает перцентили задержки (p50, p99, max) для обоих запросов.
+ */
+public class UserSearchBenchmark {
+    private static final List<String> LAST_NAMES = List.of("Иванов", "Петров", "Сидоров", "Смирнов", "Кузнецов",
+            "Попов", "Васильев", "Новиков", "Фёдоров", "Морозов", "Волков", "Алексеев", "Лебедев", "Семёнов");
+    private static final List<String> FIRST_NAMES = List.of("Иван", "Пётр", "Сергей", "Алексей", "Дмитрий",
+            "Андрей", "Михаил", "Николай", "Ольга", "Анна", "Мария", "Елена");
+    private static final List<String> QUERIES = List.of("иван", "петр", "смирн", "кузнецов сер", "попв",
+            "новиков1", "user12345", "волков ан", "лебед", "семенов");
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("bench.jdbc-url", "jdbc:postgresql://localhost:5436/bench");
+        long rows = Long.getLong("bench.rows", 1_000_000L);
+        int accounts = Integer.getInteger("bench.accounts", 1000);
+        int queries = Integer.getInteger("bench.queries", 2000);
+        int limit = Integer.getInteger("bench.limit", 10);
+
+        try (Connection connection = DriverManager.getConnection(url,
+                System.getProperty("bench.user", "user"), System.getProperty("bench.password", "user"))) {
+            populate(connection, rows, accounts);
+
+            String trigramSql = UserRepository.SEARCH_SQL
+                    .replace(":accountId", "?")
+                    .replace(":query", "?")
+                    .replace(":limit", "?");
+            String likeSql = "SELECT * FROM users WHERE account_id = ? AND " + UserRepository.SEARCH_TEXT
+                    + " ILIKE '%' || ? || '%' LIMIT ?";
+
+            try (PreparedStatement trigram = connection.prepareStatement(trigramSql);
+                 PreparedStatement like = connection.prepareStatement(likeSql)) {
+                measure("warmup", queries / 10, i -> {
+                    trigram.setObject(1, account(i, accounts));
+                    trigram.setString(2, query(i));
+                    trigram.setString(3, query(i));
+                    trigram.setInt(4, limit);
+                    return trigram;
+                });
+                measure("trigram", queries, i -> {
+                    trigram.setObject(1, account(i, accounts));
+                    trigram.setString(2, query(i));
+                    trigram.setString(3, query(i));
+                    trigram.setInt(4, limit);
+                    return trigram;
+                });
+                measure("ilike", Math.max(1, queries / 100), i -> {
+                    like.setObject(1, account(i, accounts));
+                    like.setString(2, query(i));
+                    like.setInt(3, limit);
+                    return like;
+                });
+            }
+        }
+    }
+
+    private static void populate(Connection connection, long rows, int accounts) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS users (
+                        id uuid PRIMARY KEY,
+                        account_id uuid NOT NULL,
+                        last_name varchar(255) NOT NULL,
+                        first_name varchar(255) NOT NULL,
+                        birth_date date,
+                        email varchar(255),
+                        phone varchar(255))""");
+            long existing;
+            try (ResultSet rs = statement.executeQuery("SELECT count(*) FROM users")) {
+                rs.next();
+                existing = rs.getLong(1);
+            }
+            if (existing == rows) {
+                System.out.printf("Таблица users уже содержит %d строк%n", rows);
+                return;
+            }
+            System.out.printf("Заполнение users: %d строк...%n", rows);
+            long start = System.nanoTime();
+            statement.execute("TRUNCATE users");
+            statement.execute("DROP INDEX IF EXISTS idx_users_account_search_trgm");
+            statement.execute(String.format("""
+                    INSERT INTO users (id, account_id, last_name, first_name, email)
+                    SELECT gen_random_uuid(), ('00000000-0000-0000-0000-' || lpad(to_hex(i %% %d), 12, '0'))::uuid,
+                           (ARRAY[%s])[1 + i %% %d] || (i %% 1000),
+                           (ARRAY[%s])[1 + (i / 7) %% %d],
+                           'user' || i || '@example.com'
+                    FROM generate_series(1, %d) AS i""",
+                    accounts, quoted(LAST_NAMES), LAST_NAMES.size(), quoted(FIRST_NAMES), FIRST_NAMES.size(), rows));
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            statement.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+            statement.execute("CREATE INDEX idx_users_account_search_trgm ON users USING gist (account_id, "
+                    + UserRepository.SEARCH_TEXT + " gist_trgm_ops)");
+            statement.execute("ANALYZE users");
+            System.out.printf("Заполнено и проиндексировано за %.1f с%n", (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    private static void measure(String name, int iterations, StatementFactory factory) throws SQLException {
+        long[] latencies = new long[iterations];
+        long found = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            try (ResultSet rs = factory.prepare(i).executeQuery()) {
+                while (rs.next()) {
+                    found++;
+                }
+            }
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-8s queries=%d found=%d p50=%.2f ms p99=%.2f ms max=%.2f ms%n", name, iterations, found,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private static String query(int i) {
+        String query = QUERIES.get(i % QUERIES.size());
+        return i % 3 == 0 ? query + ThreadLocalRandom.current().nextInt(1000) : query;
+    }
+
+    private static UUID account(int i, int accounts) {
+        return UUID.fromString(String.format("00000000-0000-0000-0000-%012x", i % accounts));
+    }
+
+    private static String quoted(List<String> values) {
+        return String.join(",", values.stream().map(v -> "'" + v + "'").toList());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    @FunctionalInterface
+    private interface StatementFactory {
+        PreparedStatement prepare(int iteration) throws SQLException;
+    }
+}
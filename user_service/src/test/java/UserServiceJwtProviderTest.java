@@ -0,0 +1,65 @@
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.telros.practicum.security.UserServiceJwtProvider;
+import ru.telros.practicum.security.ValidatedToken;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+public class UserServiceJwtProviderTest {
+    private static final String SECRET = "PCiMTSVb+H8qnA4g4ZgfQoTMJbAbPrhxK3zCzkK6j0Q=";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID accountId = UUID.randomUUID();
+
+    private UserServiceJwtProvider jwtProvider;
+
+    @BeforeEach
+    void setUp() {
+        jwtProvider = new UserServiceJwtProvider(SECRET, 100, meterRegistry);
+    }
+
+    @Test
+    void validate_shouldReturnClaimsAndCacheToken_whenTokenIsValid() {
+        String token = token(SECRET, System.currentTimeMillis() + 60_000);
+
+        Optional<ValidatedToken> first = jwtProvider.validate(token);
+        Optional<ValidatedToken> second = jwtProvider.validate(token);
+
+        Assertions.assertTrue(first.isPresent());
+        Assertions.assertEquals(accountId, first.get().accountId());
+        Assertions.assertEquals("user", first.get().subject());
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", UserServiceJwtProvider.CACHE_NAME)
+                .tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void validate_shouldReturnEmpty_whenSignatureOrExpiryIsInvalid() {
+        String foreign = token("c2VjcmV0LXNlY3JldC1zZWNyZXQtc2VjcmV0LXNlY3JldA==", System.currentTimeMillis() + 60_000);
+        String expired = token(SECRET, System.currentTimeMillis() - 60_000);
+
+        Assertions.assertTrue(jwtProvider.validate(foreign).isEmpty());
+        Assertions.assertTrue(jwtProvider.validate(expired).isEmpty());
+        Assertions.assertTrue(jwtProvider.validate("not-a-token").isEmpty());
+    }
+
+    private String token(String secret, long expiresAtMillis) {
+        return Jwts.builder()
+                .setSubject("user")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(expiresAtMillis))
+                .claim("accountId", accountId.toString())
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
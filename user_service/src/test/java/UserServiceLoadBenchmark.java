@@ -0,0 +1,97 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочный бенчмарк для сравнения режимов платформенных и виртуальных потоков.
+ * <p>
+ * Не запускается surefire. Сервис поднимается дважды, с {@code spring.threads.virtual.enabled=false} и {@code true},
+ * и для каждого режима выполняется:
+ * <pre>
+ * java -Dbench.url=http://localhost:8080/api/users/{userId} -Dbench.token={jwt} \
+ *     -Dbench.concurrency=500 -Dbench.duration=PT30S \
+ *     -cp user_service/target/test-classes UserServiceLoadBenchmark
+ * </pre>
+ * Печатает пропускную способность, долю ошибок и перцентили задержки (p50, p99, max).
+ */
+public class UserServiceLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(System.getProperty("bench.url", "http://localhost:8080/api/users"));
+        String token = System.getProperty("bench.token", "");
+        int concurrency = Integer.getInteger("bench.concurrency", 200);
+        Duration duration = Duration.parse(System.getProperty("bench.duration", "PT30S"));
+        Duration warmup = Duration.parse(System.getProperty("bench.warmup", "PT5S"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET();
+        if (!token.isBlank()) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.build();
+
+        System.out.printf("Прогрев %s...%n", warmup);
+        run(client, request, concurrency, warmup);
+        Result result = run(client, request, concurrency, duration);
+
+        long[] latencies = result.latencies();
+        Arrays.sort(latencies);
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("url=%s concurrency=%d duration=%s%n", uri, concurrency, duration);
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n",
+                latencies.length, result.errors(), latencies.length / seconds);
+        System.out.printf("p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, Duration duration)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<List<Long>> perWorker = new ArrayList<>();
+        // Клиентские потоки виртуальные, чтобы генератор нагрузки сам не был узким местом
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                List<Long> latencies = new ArrayList<>();
+                perWorker.add(latencies);
+                workers.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception ex) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - start);
+                    }
+                });
+            }
+        }
+        long[] all = perWorker.stream().flatMap(List::stream).mapToLong(Long::longValue).toArray();
+        return new Result(all, errors.get());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+}
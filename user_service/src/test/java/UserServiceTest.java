@@ -1,25 +1,58 @@
-import feign.FeignException;
-import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.util.unit.DataSize;
+import ru.telros.practicum.cache.AccountExistenceCache;
+import ru.telros.practicum.cache.UserProfileCache;
+import ru.telros.practicum.config.PhotoStorageProperties;
+import ru.telros.practicum.dto.user_service.PhotoInfoDto;
+import ru.telros.practicum.dto.user_service.UserChangeDto;
+import ru.telros.practicum.dto.user_service.UserChangePageDto;
+import ru.telros.practicum.dto.user_service.UserContactsDto;
 import ru.telros.practicum.dto.user_service.UserDetailsDto;
 import ru.telros.practicum.dto.user_service.UserDto;
+import ru.telros.practicum.dto.user_service.UserPageDto;
+import ru.telros.practicum.dto.user_service.UserSuggestionDto;
+import ru.telros.practicum.entity.OutboxMessage;
+import ru.telros.practicum.entity.OutboxMessageType;
+import ru.telros.practicum.entity.PhotoMetadata;
+import ru.telros.practicum.entity.PhotoVariantId;
+import ru.telros.practicum.entity.PhotoVariantMetadata;
 import ru.telros.practicum.entity.User;
+import ru.telros.practicum.entity.UserChange;
+import ru.telros.practicum.entity.UserChangeType;
 import ru.telros.practicum.exception.AccountNotFoundException;
-import ru.telros.practicum.feign.AuthServiceClient;
+import ru.telros.practicum.exception.PhotoTooLargeException;
+import ru.telros.practicum.exception.PreconditionFailedException;
+import ru.telros.practicum.exception.UserNotFoundException;
 import ru.telros.practicum.mapper.UserMapper;
+import ru.telros.practicum.repository.OutboxMessageRepository;
+import ru.telros.practicum.repository.PhotoMetadataRepository;
+import ru.telros.practicum.repository.PhotoVariantMetadataRepository;
 import ru.telros.practicum.repository.UserRepository;
+import ru.telros.practicum.repository.UserSearchFilter;
+import ru.telros.practicum.repository.UserSummary;
+import ru.telros.practicum.service.PhotoUploadedEvent;
+import ru.telros.practicum.service.UserChangeLog;
 import ru.telros.practicum.service.UserServiceImpl;
+import ru.telros.practicum.storage.PhotoStorage;
 
-import java.nio.charset.Charset;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,7 +65,32 @@ public class UserServiceTest {
     private UserMapper mapper;
 
     @Mock
-    private AuthServiceClient authServiceClient;
+    private OutboxMessageRepository outboxRepository;
+
+    @Mock
+    private UserChangeLog changeLog;
+
+    @Mock
+    private AccountExistenceCache accountCache;
+
+    @Mock
+    private PhotoStorage photoStorage;
+
+    @Mock
+    private PhotoMetadataRepository photoMetadataRepository;
+
+    @Mock
+    private PhotoVariantMetadataRepository photoVariantMetadataRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private PhotoStorageProperties photoStorageProperties = new PhotoStorageProperties();
+
+    @Spy
+    private UserProfileCache userCache = new UserProfileCache(new SimpleMeterRegistry(), Optional.empty(),
+            100, Duration.ofMinutes(5));
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -48,59 +106,138 @@ public class UserServiceTest {
         user = User.builder()
                 .id(userId)
                 .accountId(accountId)
-                .photo(null)
                 .build();
     }
 
     @Test
-    void uploadPhoto_shouldSavePhoto() {
-        Mockito.when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+    void uploadPhoto_shouldSavePhotoAndMetadata() {
+        Mockito.when(userRepository.existsByIdAndAccountId(userId, accountId)).thenReturn(true);
 
-        userService.uploadPhoto(userId, photoBytes);
+        Mockito.doAnswer(invocation -> invocation.<InputStream>getArgument(1).readAllBytes())
+                .when(photoStorage).save(Mockito.eq(userId), Mockito.any(InputStream.class));
 
-        Assertions.assertArrayEquals(photoBytes, user.getPhoto());
-        Mockito.verify(userRepository).save(user);
+        userService.uploadPhoto(userId, accountId, new ByteArrayInputStream(photoBytes), "image/png");
+
+        ArgumentCaptor<PhotoMetadata> captor = ArgumentCaptor.forClass(PhotoMetadata.class);
+        Mockito.verify(photoMetadataRepository).save(captor.capture());
+        Assertions.assertEquals(photoBytes.length, captor.getValue().getSize());
+        Assertions.assertEquals("image/png", captor.getValue().getContentType());
+        Assertions.assertEquals(64, captor.getValue().getSha256().length());
+        Mockito.verify(userRepository, Mockito.never()).save(Mockito.any());
+        Mockito.verify(eventPublisher).publishEvent(Mockito.any(PhotoUploadedEvent.class));
     }
 
     @Test
-    void getPhoto_shouldReturnPhoto_whenAccountExists() {
-        user.setPhoto(photoBytes);
-        Mockito.when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        Mockito.when(authServiceClient.getAccount(accountId)).thenReturn(null);
+    void uploadPhoto_shouldThrowNotFound_whenProfileBelongsToAnotherAccount() {
+        Mockito.when(userRepository.existsByIdAndAccountId(userId, accountId)).thenReturn(false);
+
+        Assertions.assertThrows(UserNotFoundException.class, () ->
+                userService.uploadPhoto(userId, accountId, new ByteArrayInputStream(photoBytes), "image/png"));
+        Mockito.verifyNoInteractions(photoStorage, photoMetadataRepository);
+    }
+
+    @Test
+    void uploadPhoto_shouldDetectContentTypeFromSignature() {
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 0x0D};
+        Mockito.when(userRepository.existsByIdAndAccountId(userId, accountId)).thenReturn(true);
+        Mockito.doAnswer(invocation -> invocation.<InputStream>getArgument(1).readAllBytes())
+                .when(photoStorage).save(Mockito.eq(userId), Mockito.any(InputStream.class));
+
+        userService.uploadPhoto(userId, accountId, new ByteArrayInputStream(png), "application/octet-stream");
+
+        ArgumentCaptor<PhotoMetadata> captor = ArgumentCaptor.forClass(PhotoMetadata.class);
+        Mockito.verify(photoMetadataRepository).save(captor.capture());
+        Assertions.assertEquals("image/png", captor.getValue().getContentType());
+    }
+
+    @Test
+    void uploadPhoto_shouldThrow_whenPhotoTooLarge() {
+        photoStorageProperties.setMaxSize(DataSize.ofBytes(photoBytes.length - 1));
+        Mockito.when(userRepository.existsByIdAndAccountId(userId, accountId)).thenReturn(true);
+        Mockito.doAnswer(invocation -> invocation.<InputStream>getArgument(1).readAllBytes())
+                .when(photoStorage).save(Mockito.eq(userId), Mockito.any(InputStream.class));
+
+        Assertions.assertThrows(PhotoTooLargeException.class, () ->
+                userService.uploadPhoto(userId, accountId, new ByteArrayInputStream(photoBytes), "image/png"));
+        Mockito.verify(photoMetadataRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void getPhotoInfo_shouldReturnMetadataWithoutCallingAuthService() {
+        PhotoMetadata metadata = PhotoMetadata.builder().userId(userId).size(photoBytes.length).build();
+        PhotoInfoDto photoInfo = PhotoInfoDto.builder().size(photoBytes.length).build();
+        Mockito.when(userRepository.existsByIdAndAccountId(userId, accountId)).thenReturn(true);
+        Mockito.when(photoMetadataRepository.findById(userId)).thenReturn(Optional.of(metadata));
+        Mockito.when(mapper.toPhotoInfoDto(metadata)).thenReturn(photoInfo);
 
-        byte[] result = userService.getPhoto(userId, accountId);
+        PhotoInfoDto result = userService.getPhotoInfo(userId, accountId, null);
 
-        Assertions.assertArrayEquals(photoBytes, result);
-        Mockito.verify(authServiceClient).getAccount(accountId);
+        Assertions.assertEquals(photoInfo, result);
+        Mockito.verifyNoInteractions(photoStorage, accountCache);
     }
 
     @Test
-    void getPhoto_shouldThrow_whenAccountNotFound() {
-        Request request = Request.create(
-                Request.HttpMethod.GET,
-                "http://url",
-                Map.of(),
-                null,
-                (Charset) null
-        );
-        Mockito.doThrow(new FeignException.NotFound("Not Found", request, null, null))
-                .when(authServiceClient).getAccount(accountId);
+    void getPhotoInfo_shouldReturnSmallestSufficientVariant_whenBuiltForCurrentPhoto() {
+        PhotoMetadata metadata = PhotoMetadata.builder().userId(userId).sha256("current").build();
+        PhotoVariantMetadata variant = PhotoVariantMetadata.builder()
+                .userId(userId).size(256).sourceSha256("current").build();
+        PhotoInfoDto variantInfo = PhotoInfoDto.builder().variant(256).build();
+        Mockito.when(userRepository.existsByIdAndAccountId(userId, accountId)).thenReturn(true);
+        Mockito.when(photoMetadataRepository.findById(userId)).thenReturn(Optional.of(metadata));
+        Mockito.when(photoVariantMetadataRepository.findById(new PhotoVariantId(userId, 256)))
+                .thenReturn(Optional.of(variant));
+        Mockito.when(mapper.toPhotoInfoDto(variant)).thenReturn(variantInfo);
+
+        PhotoInfoDto result = userService.getPhotoInfo(userId, accountId, 100);
+
+        Assertions.assertEquals(variantInfo, result);
+    }
 
-        Assertions.assertThrows(AccountNotFoundException.class, () -> {
-            userService.getPhoto(userId, accountId);
+    @Test
+    void getPhotoInfo_shouldReturnOriginal_whenVariantIsStale() {
+        PhotoMetadata metadata = PhotoMetadata.builder().userId(userId).sha256("current").build();
+        PhotoVariantMetadata variant = PhotoVariantMetadata.builder()
+                .userId(userId).size(64).sourceSha256("previous").build();
+        PhotoInfoDto photoInfo = PhotoInfoDto.builder().build();
+        Mockito.when(userRepository.existsByIdAndAccountId(userId, accountId)).thenReturn(true);
+        Mockito.when(photoMetadataRepository.findById(userId)).thenReturn(Optional.of(metadata));
+        Mockito.when(photoVariantMetadataRepository.findById(new PhotoVariantId(userId, 64)))
+                .thenReturn(Optional.of(variant));
+        Mockito.when(mapper.toPhotoInfoDto(metadata)).thenReturn(photoInfo);
+
+        PhotoInfoDto result = userService.getPhotoInfo(userId, accountId, 64);
+
+        Assertions.assertEquals(photoInfo, result);
+    }
+
+    @Test
+    void getPhotoInfo_shouldThrow_whenProfileBelongsToAnotherAccount() {
+        Mockito.when(userRepository.existsByIdAndAccountId(userId, accountId)).thenReturn(false);
+
+        Assertions.assertThrows(UserNotFoundException.class, () -> {
+            userService.getPhotoInfo(userId, accountId, null);
         });
     }
 
     @Test
-    void deletePhoto_shouldSetPhotoNullAndSave() {
-        user.setPhoto(photoBytes);
-        Mockito.when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        Mockito.when(authServiceClient.getAccount(accountId)).thenReturn(null);
+    void deletePhoto_shouldThrow_whenAccountNotFound() {
+        Mockito.when(accountCache.exists(accountId)).thenReturn(false);
+
+        Assertions.assertThrows(AccountNotFoundException.class, () -> userService.deletePhoto(userId, accountId));
+        Mockito.verifyNoInteractions(photoStorage);
+    }
+
+    @Test
+    void deletePhoto_shouldRemovePhotoAndMetadata() {
+        Mockito.when(userRepository.existsByIdAndAccountId(userId, accountId)).thenReturn(true);
+        Mockito.when(photoMetadataRepository.existsById(userId)).thenReturn(true);
+        Mockito.when(accountCache.exists(accountId)).thenReturn(true);
 
         userService.deletePhoto(userId, accountId);
 
-        Assertions.assertNull(user.getPhoto());
-        Mockito.verify(userRepository).save(user);
+        Mockito.verify(photoStorage).delete(userId);
+        Mockito.verify(photoMetadataRepository).deleteById(userId);
+        Mockito.verify(photoVariantMetadataRepository).deleteAllByUserId(userId);
     }
 
     @Test
@@ -119,7 +256,7 @@ public class UserServiceTest {
                 .build();
         User savedUser = User.builder().id(userId).accountId(accountId).build();
 
-        Mockito.when(authServiceClient.getAccount(accountId)).thenReturn(null);
+        Mockito.when(accountCache.exists(accountId)).thenReturn(true);
         Mockito.when(mapper.toEntity(userDto)).thenReturn(user);
         Mockito.when(userRepository.save(user)).thenReturn(savedUser);
         Mockito.when(mapper.toDto(savedUser)).thenReturn(userDto);
@@ -127,13 +264,14 @@ public class UserServiceTest {
         UserDto result = userService.createUser(userDto, accountId);
 
         Assertions.assertEquals(userDto, result);
-        Mockito.verify(authServiceClient).getAccount(accountId);
+        Mockito.verify(accountCache).exists(accountId);
         Mockito.verify(userRepository).save(user);
     }
     @Test
     void getUserById_shouldReturnUser_whenAccountExists() {
         UserDto userDto = UserDto.builder()
                 .id(userId)
+                .accountId(accountId)
                 .lastName("Ivanov")
                 .firstName("Ivan")
                 .birthDate(null)
@@ -141,14 +279,100 @@ public class UserServiceTest {
                 .phone("12345")
                 .build();
 
-        Mockito.when(authServiceClient.getAccount(accountId)).thenReturn(null);
-        Mockito.when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        Mockito.when(userRepository.findByIdAndAccountId(userId, accountId)).thenReturn(Optional.of(user));
         Mockito.when(mapper.toDto(user)).thenReturn(userDto);
 
         UserDto result = userService.getUserById(userId, accountId);
 
         Assertions.assertEquals(userDto, result);
     }
+
+    @Test
+    void getUserById_shouldReadRepositoryOnce_untilProfileInvalidated() {
+        UserDto userDto = UserDto.builder().id(userId).accountId(accountId).build();
+        Mockito.when(accountCache.exists(accountId)).thenReturn(true);
+        Mockito.when(userRepository.findByIdAndAccountId(userId, accountId)).thenReturn(Optional.of(user));
+        Mockito.when(mapper.toDto(user)).thenReturn(userDto);
+        Mockito.when(userRepository.existsByIdAndAccountId(userId, accountId)).thenReturn(true);
+
+        userService.getUserById(userId, accountId);
+        userService.getUserById(userId, accountId);
+        Mockito.verify(userRepository, Mockito.times(1)).findByIdAndAccountId(userId, accountId);
+
+        userService.deletePhoto(userId, accountId);
+        userService.getUserById(userId, accountId);
+        Mockito.verify(userRepository, Mockito.times(2)).findByIdAndAccountId(userId, accountId);
+    }
+
+    @Test
+    void getUserById_shouldNotReturnCachedProfile_toAnotherAccount() {
+        UserDto userDto = UserDto.builder().id(userId).accountId(accountId).build();
+        Mockito.when(userRepository.findByIdAndAccountId(userId, accountId)).thenReturn(Optional.of(user));
+        Mockito.when(mapper.toDto(user)).thenReturn(userDto);
+
+        userService.getUserById(userId, accountId);
+
+        Assertions.assertThrows(UserNotFoundException.class, () ->
+                userService.getUserById(userId, UUID.randomUUID()));
+        Mockito.verifyNoInteractions(accountCache);
+    }
+    @Test
+    void findUsers_shouldReturnCursor_whenMoreProfilesExist() {
+        UserSearchFilter filter = new UserSearchFilter(accountId, null, null);
+        List<UserSummary> found = List.of(summary(UUID.randomUUID()), summary(UUID.randomUUID()), summary(UUID.randomUUID()));
+        Mockito.when(userRepository.search(filter, null, 3)).thenReturn(found);
+        Mockito.when(mapper.toDto(Mockito.any(UserSummary.class))).thenReturn(UserDto.builder().build());
+
+        UserPageDto page = userService.findUsers(filter, null, 2, accountId);
+
+        Assertions.assertEquals(2, page.getUsers().size());
+        Assertions.assertEquals(found.get(1).id(), page.getNextCursor());
+    }
+
+    @Test
+    void findUsers_shouldSearchOnlyCallerAccount_whenAccountNotSpecified() {
+        Mockito.when(userRepository.search(new UserSearchFilter(accountId, "Ivanov", null), null, 21))
+                .thenReturn(List.of());
+
+        UserPageDto page = userService.findUsers(new UserSearchFilter(null, "Ivanov", null), null, 20, accountId);
+
+        Assertions.assertTrue(page.getUsers().isEmpty());
+        Mockito.verify(userRepository).search(new UserSearchFilter(accountId, "Ivanov", null), null, 21);
+    }
+
+    @Test
+    void findUsers_shouldThrowAccountNotFound_whenFilterHasAnotherAccount() {
+        UserSearchFilter filter = new UserSearchFilter(UUID.randomUUID(), null, null);
+
+        Assertions.assertThrows(AccountNotFoundException.class,
+                () -> userService.findUsers(filter, null, 20, accountId));
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getChanges_shouldReadOnlyCallerAccountChanges() {
+        UserChange change = UserChange.builder().id(11L).userId(userId).accountId(accountId).build();
+        Mockito.when(changeLog.findChanges(accountId, 10, 100)).thenReturn(List.of(change));
+        Mockito.when(mapper.toDto(change)).thenReturn(UserChangeDto.builder().id(11L).build());
+
+        UserChangePageDto page = userService.getChanges(10, 100, accountId);
+
+        Assertions.assertEquals(1, page.getChanges().size());
+        Assertions.assertEquals(11L, page.getNextCursor());
+        Mockito.verify(changeLog).findChanges(Mockito.eq(accountId), Mockito.anyLong(), Mockito.anyInt());
+    }
+
+    @Test
+    void searchUsers_shouldClampLimitAndSkipBlankQuery() {
+        Mockito.when(userRepository.searchByText("ivan", accountId, 50)).thenReturn(List.of(user));
+        Mockito.when(mapper.toSuggestion(user)).thenReturn(UserSuggestionDto.builder().id(userId).build());
+
+        Assertions.assertEquals(1, userService.searchUsers(" ivan ", 1000, accountId).size());
+        Assertions.assertTrue(userService.searchUsers("  ", 10, accountId).isEmpty());
+        Mockito.verify(userRepository, Mockito.times(1))
+                .searchByText(Mockito.anyString(), Mockito.any(UUID.class), Mockito.anyInt());
+    }
+
     @Test
     void updateUserDetails_shouldUpdateDetails_whenAccountMatches() {
         UserDetailsDto detailsDto = UserDetailsDto.builder()
@@ -172,29 +396,87 @@ public class UserServiceTest {
                 .phone(null)
                 .build();
 
-        Mockito.when(authServiceClient.getAccount(accountId)).thenReturn(null);
-        Mockito.when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        Mockito.when(userRepository.save(user)).thenReturn(updatedUser);
+        Mockito.when(accountCache.exists(accountId)).thenReturn(true);
+        Mockito.when(userRepository.updateDetails(userId, accountId, "Ivanov", "Ivan", null, null))
+                .thenReturn(Optional.of(updatedUser));
         Mockito.when(mapper.toDto(updatedUser)).thenReturn(expectedDto);
 
-        user.setAccountId(accountId);
-
-        UserDto result = userService.updateUserDetails(userId, detailsDto, accountId);
+        UserDto result = userService.updateUserDetails(userId, detailsDto, accountId, null);
 
         Assertions.assertEquals(expectedDto, result);
-        Mockito.verify(mapper).updateUserDetailsFromDto(detailsDto, user);
+        Mockito.verify(userRepository, Mockito.never()).findById(userId);
+        Mockito.verify(userRepository, Mockito.never()).save(Mockito.any());
+        Mockito.verify(changeLog).record(userId, accountId, UserChangeType.UPDATED,
+                Map.of("lastName", "Ivanov", "firstName", "Ivan"));
     }
+
     @Test
-    void deleteUserById_shouldDeleteUserAndAccount_whenAccountExists() {
-        Mockito.when(authServiceClient.getAccount(accountId)).thenReturn(null);
+    void updateUserContacts_shouldThrowNotFound_whenProfileBelongsToAnotherAccount() {
+        UserContactsDto contactsDto = UserContactsDto.builder().email("new@mail.com").build();
+        Mockito.when(accountCache.exists(accountId)).thenReturn(true);
+        Mockito.when(userRepository.updateContacts(userId, accountId, "new@mail.com", null, null))
+                .thenReturn(Optional.empty());
+        user.setAccountId(UUID.randomUUID());
         Mockito.when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        Mockito.when(authServiceClient.getAccount(accountId)).thenReturn(null);
 
+        Assertions.assertThrows(UserNotFoundException.class, () ->
+                userService.updateUserContacts(userId, contactsDto, accountId, null));
+    }
+
+    @Test
+    void updateUserContacts_shouldThrowPreconditionFailed_whenVersionChanged() {
+        UserContactsDto contactsDto = UserContactsDto.builder().phone("+79990000000").build();
+        Mockito.when(accountCache.exists(accountId)).thenReturn(true);
+        Mockito.when(userRepository.updateContacts(userId, accountId, null, "+79990000000", new Long[]{3L}))
+                .thenReturn(Optional.empty());
         user.setAccountId(accountId);
+        user.setVersion(4L);
+        Mockito.when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        Assertions.assertThrows(PreconditionFailedException.class, () ->
+                userService.updateUserContacts(userId, contactsDto, accountId, Set.of(3L)));
+        Mockito.verify(userCache, Mockito.never()).invalidate(userId);
+    }
+    @Test
+    void deleteUserById_shouldDeleteUserAndEnqueueAccountDeletion() {
+        Mockito.when(accountCache.exists(accountId)).thenReturn(true);
+        Mockito.when(userRepository.findByIdAndAccountId(userId, accountId)).thenReturn(Optional.of(user));
 
-        userService.deleteUserById(userId, accountId);
+        user.setAccountId(accountId);
+
+        userService.deleteUserById(userId, accountId, null);
+
+        Mockito.verify(userRepository).delete(user);
+        ArgumentCaptor<OutboxMessage> captor = ArgumentCaptor.forClass(OutboxMessage.class);
+        Mockito.verify(outboxRepository).save(captor.capture());
+        Assertions.assertEquals(OutboxMessageType.ACCOUNT_DELETION, captor.getValue().getType());
+        Assertions.assertEquals(accountId, captor.getValue().getAggregateId());
+    }
+
+    @Test
+    void deleteUserById_shouldNotDelete_whenVersionChanged() {
+        Mockito.when(accountCache.exists(accountId)).thenReturn(true);
+        user.setVersion(2L);
+        Mockito.when(userRepository.findByIdAndAccountId(userId, accountId)).thenReturn(Optional.of(user));
+
+        Assertions.assertThrows(PreconditionFailedException.class, () ->
+                userService.deleteUserById(userId, accountId, Set.of(1L)));
+        Mockito.verify(userRepository, Mockito.never()).delete(Mockito.any());
+        Mockito.verifyNoInteractions(outboxRepository);
+    }
+
+    @Test
+    void deleteUserById_shouldDelete_whenAnyExpectedVersionMatches() {
+        Mockito.when(accountCache.exists(accountId)).thenReturn(true);
+        user.setVersion(2L);
+        Mockito.when(userRepository.findByIdAndAccountId(userId, accountId)).thenReturn(Optional.of(user));
+
+        userService.deleteUserById(userId, accountId, Set.of(1L, 2L));
 
         Mockito.verify(userRepository).delete(user);
-        Mockito.verify(authServiceClient).deleteAccount(accountId);
+    }
+
+    private UserSummary summary(UUID id) {
+        return new UserSummary(id, accountId, "Ivanov", "Ivan", null, "test@mail.com", null);
     }
 }
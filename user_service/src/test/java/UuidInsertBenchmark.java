@@ -0,0 +1,81 @@
+import ru.telros.practicum.id.UuidV7;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Бенчмарк вставки с первичным ключом UUID версии 4 (прежняя схема) и версии 7 ({@link UuidV7}).
+ * <p>
+ * Не запускается surefire. Нужна отдельная пустая база Postgres; для каждой схемы создаётся таблица
+ * с тем же набором столбцов, что и users, и заполняется {@code bench.rows} строками JDBC-пакетами.
+ * <pre>
+ * java -Dbench.jdbc-url=jdbc:postgresql://localhost:5436/bench?reWriteBatchedInserts=true \
+ *     -Dbench.user=user -Dbench.password=user -Dbench.rows=10000000 \
+ *     -cp user_service/target/test-classes:{classpath} UuidInsertBenchmark
+ * </pre>
+ * Печатает пропускную способность вставки, размер индекса первичного ключа и долю
+ * чтений страниц индекса, не попавших в shared buffers.
+ */
+public class UuidInsertBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("bench.jdbc-url", "jdbc:postgresql://localhost:5436/bench?reWriteBatchedInserts=true");
+        long rows = Long.getLong("bench.rows", 10_000_000L);
+        int batchSize = Integer.getInteger("bench.batch-size", 1000);
+
+        try (Connection connection = DriverManager.getConnection(url,
+                System.getProperty("bench.user", "user"), System.getProperty("bench.password", "user"))) {
+            run(connection, "bench_users_v4", UUID::randomUUID, rows, batchSize);
+            run(connection, "bench_users_v7", UuidV7::generate, rows, batchSize);
+        }
+    }
+
+    private static void run(Connection connection, String table, Supplier<UUID> ids, long rows, int batchSize)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " ("
+                    + "id uuid PRIMARY KEY, account_id uuid NOT NULL, last_name varchar(255) NOT NULL, "
+                    + "first_name varchar(255) NOT NULL, birth_date date, email varchar(255), phone varchar(255))");
+        }
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table
+                + " (id, account_id, last_name, first_name, email) VALUES (?, ?, ?, ?, ?)")) {
+            for (long i = 1; i <= rows; i++) {
+                insert.setObject(1, ids.get());
+                insert.setObject(2, UUID.randomUUID());
+                insert.setString(3, "Ivanov" + i % 1000);
+                insert.setString(4, "Ivan");
+                insert.setString(5, "user" + i + "@example.com");
+                insert.addBatch();
+                if (i % batchSize == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        connection.setAutoCommit(true);
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_relation_size('" + table + "_pkey'), "
+                     + "idx_blks_read, idx_blks_hit FROM pg_statio_user_tables WHERE relname = '" + table + "'")) {
+            rs.next();
+            long indexBytes = rs.getLong(1);
+            long read = rs.getLong(2);
+            long hit = rs.getLong(3);
+            System.out.printf("%s rows=%d time=%.1f s throughput=%.0f rows/s pkey=%.1f MB index-miss=%.2f%%%n",
+                    table, rows, seconds, rows / seconds, indexBytes / 1024.0 / 1024.0,
+                    read + hit == 0 ? 0.0 : 100.0 * read / (read + hit));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ru.telros.practicum.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.telros.practicum.dto.auth_service.AccountDto;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * JMH бенчмарк кодирования {@link AccountDto} в JSON и CBOR для {@code /internal/auth/account}.
+ * <p>
+ * Не запускается surefire. Сравнивает время кодирования и разбора одного аккаунта ({@code accounts=1},
+ * ответ {@code GET /{accountId}}) и пакета ({@code accounts=64}, ответ {@code POST /batch});
+ * перед замером печатает размер тела в каждом формате:
+ * <pre>
+ * java -cp user_service/target/test-classes:user_service/target/classes:{classpath} \
+ *     ru.telros.practicum.codec.AccountCodecBenchmark
+ * </pre>
+ * Мапперы настраиваются так же, как в сервисах: {@link Jackson2ObjectMapperBuilder} с {@link ParameterNamesModule}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountCodecBenchmark {
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"1", "64"})
+    public int accounts;
+
+    private Object payload;
+    private byte[] encoded;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+
+    public static void main(String[] args) throws Exception {
+        for (int accounts : new int[]{1, 64}) {
+            for (String format : new String[]{"json", "cbor"}) {
+                AccountCodecBenchmark benchmark = new AccountCodecBenchmark();
+                benchmark.format = format;
+                benchmark.accounts = accounts;
+                benchmark.setUp();
+                System.out.printf("accounts=%d format=%s size=%d bytes%n", accounts, format, benchmark.encoded.length);
+            }
+        }
+        new Runner(new OptionsBuilder()
+                .include(AccountCodecBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = "cbor".equals(format)
+                ? Jackson2ObjectMapperBuilder.cbor()
+                : Jackson2ObjectMapperBuilder.json();
+        ObjectMapper mapper = builder.modulesToInstall(new ParameterNamesModule()).build();
+
+        List<AccountDto> batch = IntStream.range(0, accounts)
+                .mapToObj(i -> new AccountDto(UUID.randomUUID(), "user" + i + "@example.com"))
+                .toList();
+        JavaType type = accounts == 1
+                ? mapper.constructType(AccountDto.class)
+                : mapper.getTypeFactory().constructCollectionType(List.class, AccountDto.class);
+        payload = accounts == 1 ? batch.get(0) : batch;
+        writer = mapper.writerFor(type);
+        reader = mapper.readerFor(type);
+        encoded = writer.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
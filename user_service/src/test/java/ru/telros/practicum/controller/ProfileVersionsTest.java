@@ -0,0 +1,39 @@
+package ru.telros.practicum.controller;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import ru.telros.practicum.exception.PreconditionFailedException;
+
+import java.util.Set;
+
+public class ProfileVersionsTest {
+
+    @Test
+    void expectedVersions_shouldReturnNull_whenHeaderAbsentOrAny() {
+        Assertions.assertNull(ProfileVersions.expectedVersions(new HttpHeaders()));
+        Assertions.assertNull(ProfileVersions.expectedVersions(ifMatch("*")));
+    }
+
+    @Test
+    void expectedVersions_shouldAcceptEveryStrongTagOfList() {
+        Assertions.assertEquals(Set.of(3L, 4L), ProfileVersions.expectedVersions(ifMatch("\"3\", \"4\"")));
+    }
+
+    @Test
+    void expectedVersions_shouldSkipWeakAndForeignTags() {
+        Assertions.assertEquals(Set.of(5L), ProfileVersions.expectedVersions(ifMatch("W/\"4\", \"abc\", \"5\"")));
+    }
+
+    @Test
+    void expectedVersions_shouldFail_whenNoTagCanMatch() {
+        Assertions.assertThrows(PreconditionFailedException.class,
+                () -> ProfileVersions.expectedVersions(ifMatch("W/\"4\", \"abc\"")));
+    }
+
+    private static HttpHeaders ifMatch(String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.IF_MATCH, value);
+        return headers;
+    }
+}